@@ -1,7 +1,14 @@
 package com.chiacademy.software.phonecontacts.config;
 
-import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.BCryptCalibration;
+import com.chiacademy.software.phonecontacts.security.BulkheadPasswordEncoder;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,28 +16,31 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 public class AuthenticationConfig {
 
-    private final UserRepository userRepository;
+    private static final String BCRYPT = "bcrypt";
+
+    private final UserDetailsCache userDetailsCache;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository
-                .findByLogin(username)
-                .orElseThrow(() -> new UsernameNotFoundException("The user is not found"));
+        return userDetailsCache::loadUserByLogin;
     }
 
     @Bean
-    public AuthenticationProvider authConfigProvider() {
+    public AuthenticationProvider authConfigProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -40,8 +50,24 @@ public class AuthenticationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${contacts.password-hashing.threads:4}") int threads,
+                                           @Value("${contacts.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${contacts.password-hashing.timeout:5s}") Duration timeout,
+                                           @Value("${contacts.password-hashing.strength:0}") int strength,
+                                           @Value("${contacts.password-hashing.target-time:100ms}") Duration targetTime,
+                                           @Value("${contacts.password-hashing.min-strength:10}") int minStrength,
+                                           @Value("${contacts.password-hashing.max-strength:16}") int maxStrength,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        int bcryptStrength = strength > 0 ? strength
+                : BCryptCalibration.strengthFor(targetTime, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("contacts.password.strength", () -> bcryptStrength)
+                .tag("algorithm", BCRYPT)
+                .register(registry);
+        return new BulkheadPasswordEncoder(encoder, threads, queueCapacity, timeout, registry);
     }
 
 }
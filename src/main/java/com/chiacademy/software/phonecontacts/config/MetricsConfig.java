@@ -0,0 +1,76 @@
+package com.chiacademy.software.phonecontacts.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateRequestStatisticsCustomizer() {
+        HibernateRequestStatistics statistics = new HibernateRequestStatistics();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, statistics);
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(statistics));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> hibernateRequestMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                            @NonNull HttpServletResponse response,
+                                            @NonNull FilterChain filterChain) throws ServletException, IOException {
+                HibernateRequestStatistics.Counts counts = HibernateRequestStatistics.begin();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    HibernateRequestStatistics.end();
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+                    record(meterRegistry, "contacts.hibernate.request.statements", uri, counts.getStatements());
+                    record(meterRegistry, "contacts.hibernate.request.entity.loads", uri, counts.getEntityLoads());
+                    record(meterRegistry, "contacts.hibernate.request.collection.fetches", uri,
+                            counts.getCollectionFetches());
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    private static void record(MeterRegistry meterRegistry, String name, String uri, int value) {
+        DistributionSummary.builder(name)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
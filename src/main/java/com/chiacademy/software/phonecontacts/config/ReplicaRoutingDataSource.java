@@ -0,0 +1,168 @@
+package com.chiacademy.software.phonecontacts.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Reason {
+        WRITE(Route.PRIMARY),
+        FORCED(Route.PRIMARY),
+        READ_YOUR_WRITES(Route.PRIMARY),
+        REPLICA_LAG(Route.PRIMARY),
+        READ_ONLY(Route.REPLICA);
+
+        private final Route route;
+
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+    private final long lagCheckIntervalNanos;
+    private final Cache<String, Boolean> recentWriters;
+    private final Map<Reason, Counter> routes = new EnumMap<>(Reason.class);
+    private final ScheduledExecutorService lagProbe;
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag,
+                                    Duration lagCheckInterval, Duration readYourWrites, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagCheckIntervalNanos = lagCheckInterval.toNanos();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+        threadFactory.setDaemon(true);
+        this.lagProbe = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .build();
+        for (Reason reason : Reason.values()) {
+            routes.put(reason, Counter.builder("contacts.datasource.routing")
+                    .tag("route", reason.getRoute().name().toLowerCase())
+                    .tag("reason", reason.tag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("contacts.datasource.replica.lag", () -> lagMillis == Long.MAX_VALUE ? Double.NaN : lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        refreshLag();
+        lagProbe.scheduleWithFixedDelay(this::refreshLag, lagCheckIntervalNanos, lagCheckIntervalNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    public void shutdown() {
+        lagProbe.shutdownNow();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Reason reason = route();
+        routes.get(reason).increment();
+        return reason.getRoute();
+    }
+
+    private Reason route() {
+        String login = currentLogin();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(login);
+            }
+            return Reason.WRITE;
+        }
+        if (FORCE_PRIMARY.get() != null) {
+            return Reason.FORCED;
+        }
+        if (login != null && recentWriters.getIfPresent(login) != null) {
+            return Reason.READ_YOUR_WRITES;
+        }
+        return lagMillis <= maxLagMillis ? Reason.READ_ONLY : Reason.REPLICA_LAG;
+    }
+
+    private void recordWrite(String login) {
+        if (login == null) {
+            return;
+        }
+        recentWriters.put(login, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recentWriters.put(login, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private void refreshLag() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lagMillis = lag == null ? Long.MAX_VALUE : lag.longValue();
+        } catch (RuntimeException e) {
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    private static String currentLogin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -1,14 +1,26 @@
 package com.chiacademy.software.phonecontacts.controller;
 
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDeleteReport;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
+import com.chiacademy.software.phonecontacts.service.ContactFileService;
 import com.chiacademy.software.phonecontacts.service.ContactService;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -18,7 +30,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/contacts")
@@ -28,7 +43,18 @@ public class ContactController {
 
     public static final String NO_LESS_THEN_3_LETTERS = "Contact name mustn't be bigger then 24 letters and less then 3 letters";
 
+    public static final String SEARCH_QUERY_LENGTH = "Search query must be between 3 and 64 characters";
+    public static final String SEARCH_LIMIT_RANGE = "Search limit must be between 1 and 100";
+
+    public static final String AUTOCOMPLETE_PREFIX_LENGTH = "Autocomplete prefix must be between 1 and 64 characters";
+    public static final String AUTOCOMPLETE_LIMIT_RANGE = "Autocomplete limit must be between 1 and 50";
+
+    public static final String DELETE_NAMES_SIZE = "Between 1 and 1000 contact names must be given";
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ContactService contactService;
+    private final ContactFileService contactFileService;
 
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
@@ -42,11 +68,71 @@ public class ContactController {
         contactService.delete(contactName, principal);
     }
 
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ContactDeleteReport deleteAll(@RequestBody
+                                         @Size(min = 1, max = 1000, message = DELETE_NAMES_SIZE)
+                                         List<@NotBlank(message = "Contact name must not be blank") String> contactNames,
+                                         Principal principal) {
+        return contactService.deleteAll(contactNames, principal);
+    }
+
     @PutMapping("{contact}/edit")
     @ResponseStatus(HttpStatus.OK)
-    public Contact editContactByName(@RequestBody @Valid ContactDto request,
-                                     @PathVariable("contact") @Size(min = 3, max = 24, message = NO_LESS_THEN_3_LETTERS) String oldContactName,
-                                     Principal principal) {
+    public ContactDto editContactByName(@RequestBody @Valid ContactDto request,
+                                        @PathVariable("contact") @Size(min = 3, max = 24, message = NO_LESS_THEN_3_LETTERS) String oldContactName,
+                                        Principal principal) {
         return contactService.editContactByName(request, oldContactName, principal);
     }
+
+    @PatchMapping("{contact}/edit")
+    @ResponseStatus(HttpStatus.OK)
+    public ContactDto patchContactByName(@RequestBody @Valid ContactPatchDto request,
+                                         @PathVariable("contact") @Size(min = 3, max = 24, message = NO_LESS_THEN_3_LETTERS) String contactName,
+                                         Principal principal) {
+        return contactService.patchContactByName(request, contactName, principal);
+    }
+
+    @GetMapping("/by-phone")
+    @ResponseStatus(HttpStatus.OK)
+    public ContactDto findByPhone(@RequestParam("phone")
+                                  @Pattern(regexp = PhoneNumbers.PHONE_REGEX, message = PhoneNumbers.INVALID_PHONE)
+                                  String phone,
+                                  Principal principal) {
+        return contactService.findByPhone(phone, principal);
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ContactDto> search(@RequestParam("q")
+                                   @Size(min = 3, max = 64, message = SEARCH_QUERY_LENGTH) String query,
+                                   @RequestParam(value = "limit", defaultValue = "20")
+                                   @Min(value = 1, message = SEARCH_LIMIT_RANGE)
+                                   @Max(value = 100, message = SEARCH_LIMIT_RANGE) int limit,
+                                   Principal principal) {
+        return contactService.search(query, limit, principal);
+    }
+
+    @GetMapping("/autocomplete")
+    @ResponseStatus(HttpStatus.OK)
+    public List<String> autocomplete(@RequestParam("prefix")
+                                     @Size(min = 1, max = 64, message = AUTOCOMPLETE_PREFIX_LENGTH) String prefix,
+                                     @RequestParam(value = "limit", defaultValue = "10")
+                                     @Min(value = 1, message = AUTOCOMPLETE_LIMIT_RANGE)
+                                     @Max(value = 50, message = AUTOCOMPLETE_LIMIT_RANGE) int limit,
+                                     Principal principal) {
+        return contactService.autocomplete(prefix, limit, principal);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ContactImportReport importNdjson(InputStream body, Principal principal) throws IOException {
+        return contactFileService.importContacts(body, ContactFileFormat.NDJSON, principal);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ContactImportReport importCsv(InputStream body, Principal principal) throws IOException {
+        return contactFileService.importContacts(body, ContactFileFormat.CSV, principal);
+    }
 }
@@ -1,10 +1,17 @@
 package com.chiacademy.software.phonecontacts.controller;
 
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactCursorPage;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.security.RefreshTokenRequest;
+import com.chiacademy.software.phonecontacts.service.ContactFileService;
 import com.chiacademy.software.phonecontacts.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,9 +23,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.security.Principal;
 
 @RestController
@@ -27,7 +37,10 @@ import java.security.Principal;
 @Validated
 public class UserController {
 
+    public static final String PAGE_SIZE_RANGE = "Page size must be between 1 and 100";
+
     private final UserService userService;
+    private final ContactFileService contactFileService;
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
@@ -41,11 +54,48 @@ public class UserController {
         return userService.login(request);
     }
 
-    @GetMapping("{login}/contacts")
+    @PostMapping("/refresh")
     @ResponseStatus(HttpStatus.OK)
-    public Page<Contact> getAllContactsByUser(@PathVariable("login") String login,
-                                              @PageableDefault Pageable pageable,
-                                              Principal principal){
+    public AuthenticationResponse refresh(@RequestBody @Valid RefreshTokenRequest request) {
+        return userService.refresh(request);
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestBody @Valid RefreshTokenRequest request) {
+        userService.logout(request);
+    }
+
+    @GetMapping("{login}/contacts")
+    public Page<ContactDto> getAllContactsByUser(@PathVariable("login") String login,
+                                                 @PageableDefault Pageable pageable,
+                                                 Principal principal,
+                                                 WebRequest request) {
+        if (request.checkNotModified(userService.getContactsVersion(login, principal))) {
+            return null;
+        }
         return userService.getAllContactsByLogin(login, pageable, principal);
     }
+
+    @GetMapping("{login}/contacts/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public ContactCursorPage getContactsByCursor(@PathVariable("login") String login,
+                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                 @RequestParam(value = "size", defaultValue = "20")
+                                                 @Min(value = 1, message = PAGE_SIZE_RANGE)
+                                                 @Max(value = 100, message = PAGE_SIZE_RANGE) int size,
+                                                 Principal principal) {
+        return userService.getContactsByCursor(login, cursor, size, principal);
+    }
+
+    @GetMapping("{login}/contacts/export")
+    @ResponseStatus(HttpStatus.OK)
+    public void exportContacts(@PathVariable("login") String login,
+                               @RequestParam(value = "format", defaultValue = "NDJSON") ContactFileFormat format,
+                               Principal principal,
+                               HttpServletResponse response) throws IOException {
+        Long ownerId = userService.getOwnerId(login, principal);
+        response.setContentType(format.getMediaType());
+        contactFileService.exportContacts(ownerId, format, response.getOutputStream());
+    }
 }
@@ -0,0 +1,19 @@
+package com.chiacademy.software.phonecontacts.exception;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+
+import java.util.List;
+
+public class ContactDataAlreadyExistsException extends RuntimeException{
+
+    private final List<ContactConflict> conflicts;
+
+    public ContactDataAlreadyExistsException(String message, List<ContactConflict> conflicts) {
+        super(message);
+        this.conflicts = conflicts;
+    }
+
+    public List<ContactConflict> getConflicts(){
+        return conflicts;
+    }
+}
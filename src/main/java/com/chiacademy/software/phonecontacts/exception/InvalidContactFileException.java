@@ -0,0 +1,15 @@
+package com.chiacademy.software.phonecontacts.exception;
+
+public class InvalidContactFileException extends RuntimeException{
+
+    private final String value;
+
+    public InvalidContactFileException(String message, String value) {
+        super(message);
+        this.value = value;
+    }
+
+    public String getWrongValue(){
+        return value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.chiacademy.software.phonecontacts.exception;
+
+public class InvalidCursorException extends RuntimeException{
+
+    private final String value;
+
+    public InvalidCursorException(String message, String value) {
+        super(message);
+        this.value = value;
+    }
+
+    public String getWrongValue(){
+        return value;
+    }
+}
@@ -1,14 +1,24 @@
 package com.chiacademy.software.phonecontacts.exception.handler;
 
+import com.chiacademy.software.phonecontacts.exception.ContactDataAlreadyExistsException;
 import com.chiacademy.software.phonecontacts.exception.Error;
+import com.chiacademy.software.phonecontacts.exception.InvalidContactFileException;
+import com.chiacademy.software.phonecontacts.exception.InvalidCursorException;
+import com.chiacademy.software.phonecontacts.exception.InvalidRefreshTokenException;
 import com.chiacademy.software.phonecontacts.exception.NotFoundException;
+import com.chiacademy.software.phonecontacts.exception.ServiceBusyException;
 import com.chiacademy.software.phonecontacts.exception.UserAlreadyExistsException;
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.postgresql.util.PSQLException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,29 +26,91 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @RestControllerAdvice
 public class ControllerExceptionHandler {
 
     private final static String PROBLEMS = "problemDetails";
     public static final String MUST_HAVE_A_VALID_TYPE = "The field '%s' must have a valid type of '%s'";
+    public static final String EMAIL_ALREADY_PRESENT = "Such email is already present in your contacts";
+    public static final String PHONE_ALREADY_PRESENT = "Such phone is already present in your contacts";
+    private static final Map<String, Error> UNIQUE_CONSTRAINTS = Map.of(
+            "uq_contact_emails_user_email", Error.builder().message(EMAIL_ALREADY_PRESENT).field("emails").build(),
+            "uq_contact_phone_numbers_user_phone_key", Error.builder().message(PHONE_ALREADY_PRESENT).field("phones").build(),
+            "contacts_name_user_id_key", Error.builder().message("Contact with such name already exists").field("name").build());
+    private static final Map<String, Error> CHECK_CONSTRAINTS = Map.of(
+            "chk_contact_phone_numbers_e164", Error.builder().message(PhoneNumbers.INVALID_PHONE).field("phones").build());
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ProblemDetail handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        Optional<String> constraintName = constraintName(e);
+        Optional<Error> invalidValue = constraintName.map(CHECK_CONSTRAINTS::get);
+        if (invalidValue.isPresent()) {
+            ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Failed validation");
+            pd.setProperty(PROBLEMS, List.of(invalidValue.get()));
+            return pd;
+        }
         ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Data already exists");
-        Error error = Error.builder().message(e.getMessage()).build();
+        Error error = constraintName
+                .map(UNIQUE_CONSTRAINTS::get)
+                .orElse(Error.builder().message(e.getMessage()).build());
         pd.setProperty(PROBLEMS, List.of(error));
         return pd;
     }
 
+    private static Optional<String> constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return Optional.of(violation.getConstraintName());
+            }
+            if (cause instanceof SQLException sqlException) {
+                Optional<String> constraint = constraintName(sqlException);
+                if (constraint.isPresent()) {
+                    return constraint;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> constraintName(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (next instanceof PSQLException psqlException && psqlException.getServerErrorMessage() != null
+                    && psqlException.getServerErrorMessage().getConstraint() != null) {
+                return Optional.of(psqlException.getServerErrorMessage().getConstraint());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @ExceptionHandler(ContactDataAlreadyExistsException.class)
+    public ProblemDetail handleContactDataAlreadyExistsException(ContactDataAlreadyExistsException e) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Data already exists");
+        List<Error> errors = new ArrayList<>();
+        for (ContactConflict conflict : e.getConflicts()) {
+            Error error = Error.builder()
+                    .message("emails".equals(conflict.getField()) ? EMAIL_ALREADY_PRESENT : PHONE_ALREADY_PRESENT)
+                    .field(conflict.getField())
+                    .wrongValue(conflict.getValue()).build();
+            errors.add(error);
+        }
+        pd.setProperty(PROBLEMS, errors);
+        return pd;
+    }
+
     @ExceptionHandler(SecurityException.class)
     public ProblemDetail handleSecurityException(SecurityException e) {
         ProblemDetail pd = ProblemDetail.forStatusAndDetail(FORBIDDEN, "Illegal access");
@@ -63,6 +135,38 @@ public class ControllerExceptionHandler {
         return pd;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursorException(InvalidCursorException e) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Wrong input parameter");
+        Error error = Error.builder().message(e.getMessage()).field("cursor").wrongValue(e.getWrongValue()).build();
+        pd.setProperty(PROBLEMS, List.of(error));
+        return pd;
+    }
+
+    @ExceptionHandler(InvalidContactFileException.class)
+    public ProblemDetail handleInvalidContactFileException(InvalidContactFileException e) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Invalid contact file");
+        Error error = Error.builder().message(e.getMessage()).wrongValue(e.getWrongValue()).build();
+        pd.setProperty(PROBLEMS, List.of(error));
+        return pd;
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ProblemDetail handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(UNAUTHORIZED, "Invalid refresh token");
+        Error error = Error.builder().message(e.getMessage()).field("refreshToken").build();
+        pd.setProperty(PROBLEMS, List.of(error));
+        return pd;
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ProblemDetail> handleServiceBusyException(ServiceBusyException e) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(SERVICE_UNAVAILABLE, "Service is busy");
+        Error error = Error.builder().message(e.getMessage()).build();
+        pd.setProperty(PROBLEMS, List.of(error));
+        return ResponseEntity.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(pd);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
         ProblemDetail pd = ProblemDetail.forStatusAndDetail(BAD_REQUEST, "Failed validation");
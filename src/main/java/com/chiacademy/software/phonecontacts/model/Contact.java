@@ -15,15 +15,25 @@ import java.util.Set;
 
 @Entity
 @Table(name = "contacts")
+@NamedEntityGraph(name = Contact.WITH_EMAILS_AND_PHONES, attributeNodes = {
+        @NamedAttributeNode("emails"),
+        @NamedAttributeNode("phones")
+})
 @Builder
 @Setter
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Contact {
+
+    public static final String WITH_EMAILS_AND_PHONES = "Contact.withEmailsAndPhones";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @JsonIgnore
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_id_seq")
+    @SequenceGenerator(name = "contacts_id_seq", sequenceName = "contacts_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -40,7 +50,7 @@ public class Contact {
     @Column(name = "phone_number")
     Set<String> phones = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private User user;
 
@@ -0,0 +1,8 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+public interface ContactConflict {
+
+    String getField();
+
+    String getValue();
+}
@@ -0,0 +1,19 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactCursorPage {
+
+    private List<ContactDto> content;
+
+    private String nextCursor;
+}
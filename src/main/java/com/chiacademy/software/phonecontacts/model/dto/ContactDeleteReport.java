@@ -0,0 +1,18 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactDeleteReport {
+
+    private List<String> deleted;
+    private List<String> notFound;
+}
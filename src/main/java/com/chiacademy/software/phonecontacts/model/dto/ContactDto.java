@@ -1,5 +1,6 @@
 package com.chiacademy.software.phonecontacts.model.dto;
 
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -24,7 +25,5 @@ public class ContactDto {
         @NotEmpty(message = "Email must not be empty")String> emails;
 
     Set<@NotEmpty(message = "Phone must not be empty")
-        @Pattern(regexp = "\\+[0-9]{3}\\s?[0-9]{2}\\s?[0-9]{3}\\s?[0-9]{4}",
-                message = "Invalid phone number. " +
-                        "Valid format is +380 93 123 4567 or without spaces +380931234567") String> phones;
+        @Pattern(regexp = PhoneNumbers.PHONE_REGEX, message = PhoneNumbers.INVALID_PHONE) String> phones;
 }
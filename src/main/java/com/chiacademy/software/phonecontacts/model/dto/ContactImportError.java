@@ -0,0 +1,20 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import com.chiacademy.software.phonecontacts.exception.Error;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactImportError {
+
+    private long row;
+    private String name;
+    private List<Error> problems;
+}
@@ -0,0 +1,20 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactImportReport {
+
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private List<ContactImportError> errors;
+}
@@ -0,0 +1,34 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactPatchDto {
+
+    @Size(min = 3, max = 24, message = "Contact name mustn't be bigger then 24 letters and less then 3 letters")
+    private String name;
+
+    private Set<@Email(message = "Email is written in a wrong format")
+                @NotEmpty(message = "Email must not be empty") String> addEmails;
+
+    private Set<@NotEmpty(message = "Email must not be empty") String> removeEmails;
+
+    private Set<@NotEmpty(message = "Phone must not be empty")
+                @Pattern(regexp = PhoneNumbers.PHONE_REGEX, message = PhoneNumbers.INVALID_PHONE) String> addPhones;
+
+    private Set<@NotEmpty(message = "Phone must not be empty")
+                @Pattern(regexp = PhoneNumbers.PHONE_REGEX, message = PhoneNumbers.INVALID_PHONE) String> removePhones;
+}
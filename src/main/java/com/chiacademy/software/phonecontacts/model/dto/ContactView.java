@@ -0,0 +1,14 @@
+package com.chiacademy.software.phonecontacts.model.dto;
+
+import java.util.Set;
+
+public interface ContactView {
+
+    Long getId();
+
+    String getName();
+
+    Set<String> getEmails();
+
+    Set<String> getPhones();
+}
@@ -0,0 +1,122 @@
+package com.chiacademy.software.phonecontacts.repository;
+
+import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class ContactJdbcRepository {
+
+    private static final String EXISTING_NAMES = """
+            SELECT c.name FROM contacts_db.contacts c
+            WHERE c.user_id = ? AND c.name = ANY(?)""";
+    private static final String DELETE_BY_NAMES = """
+            DELETE FROM contacts_db.contacts c
+            WHERE c.user_id = ? AND c.name = ANY(?)
+            RETURNING c.name""";
+    private static final String CONTACTS_BY_USER = """
+            SELECT c.name AS name,
+                   ARRAY(SELECT e.email FROM contacts_db.contact_emails e WHERE e.contact_id = c.id) AS emails,
+                   ARRAY(SELECT p.phone_number FROM contacts_db.contact_phone_numbers p WHERE p.contact_id = c.id) AS phones
+            FROM contacts_db.contacts c
+            WHERE c.user_id = ?
+            ORDER BY c.name, c.id""";
+    private static final String NEXT_CONTACT_ID_BLOCKS =
+            "SELECT nextval('contacts_db.contacts_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_CONTACT =
+            "INSERT INTO contacts_db.contacts (id, name, user_id) VALUES (?, ?, ?)";
+    private static final String INSERT_EMAIL =
+            "INSERT INTO contacts_db.contact_emails (contact_id, email, user_id) VALUES (?, ?, ?)";
+    private static final String INSERT_PHONE =
+            "INSERT INTO contacts_db.contact_phone_numbers (contact_id, phone_number, user_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<String> findExistingNames(Long userId, Collection<String> names) {
+        return queryNames(EXISTING_NAMES, userId, names);
+    }
+
+    public Set<String> deleteByNames(Long userId, Collection<String> names) {
+        return queryNames(DELETE_BY_NAMES, userId, names);
+    }
+
+    public void streamByUserId(Long userId, int fetchSize, Consumer<ContactDto> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CONTACTS_BY_USER,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(ContactDto.builder()
+                .name(rs.getString("name"))
+                .emails(toSet(rs.getArray("emails")))
+                .phones(toSet(rs.getArray("phones"))).build()));
+    }
+
+    public void insertAll(Long userId, List<ContactDto> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = nextContactIds(contacts.size());
+        List<Object[]> contactRows = new ArrayList<>(contacts.size());
+        List<Object[]> emailRows = new ArrayList<>();
+        List<Object[]> phoneRows = new ArrayList<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            ContactDto contact = contacts.get(i);
+            Long id = ids.get(i);
+            contactRows.add(new Object[]{id, contact.getName(), userId});
+            contact.getEmails().forEach(email -> emailRows.add(new Object[]{id, email, userId}));
+            contact.getPhones().forEach(phone -> phoneRows.add(new Object[]{id, phone, userId}));
+        }
+        jdbcTemplate.batchUpdate(INSERT_CONTACT, contactRows);
+        jdbcTemplate.batchUpdate(INSERT_EMAIL, emailRows);
+        jdbcTemplate.batchUpdate(INSERT_PHONE, phoneRows);
+    }
+
+    private List<Long> nextContactIds(int count) {
+        int blocks = (count + Contact.ID_ALLOCATION_SIZE - 1) / Contact.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long low : jdbcTemplate.queryForList(NEXT_CONTACT_ID_BLOCKS, Long.class, blocks)) {
+            for (int i = 0; i < Contact.ID_ALLOCATION_SIZE && ids.size() < count; i++) {
+                ids.add(low + i);
+            }
+        }
+        return ids;
+    }
+
+    private static Set<String> toSet(Array array) throws SQLException {
+        return new LinkedHashSet<>(Arrays.asList((String[]) array.getArray()));
+    }
+
+    private Set<String> queryNames(String sql, Long userId, Collection<String> values) {
+        Set<String> names = new HashSet<>();
+        if (values.isEmpty()) {
+            return names;
+        }
+        jdbcTemplate.query(sql, ps -> {
+            Array array = ps.getConnection().createArrayOf("varchar", values.toArray());
+            ps.setLong(1, userId);
+            ps.setArray(2, array);
+        }, rs -> {
+            names.add(rs.getString(1));
+        });
+        return names;
+    }
+}
@@ -2,25 +2,104 @@ package com.chiacademy.software.phonecontacts.repository;
 
 import com.chiacademy.software.phonecontacts.model.Contact;
 import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+import com.chiacademy.software.phonecontacts.model.dto.ContactView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ContactRepository extends JpaRepository<Contact, Long> {
 
     Optional<Contact> findContactByNameAndUser(String contactName, User user);
+
+    @EntityGraph(Contact.WITH_EMAILS_AND_PHONES)
+    Optional<Contact> findContactWithEmailsAndPhonesByNameAndUser(String contactName, User user);
+
     @Modifying
-    @Query("DELETE FROM Contact c WHERE c.id=:id")
-    void deleteContactById(Long id);
+    @Query(value = "DELETE FROM contacts_db.contacts c WHERE c.user_id = :userId AND c.name = :name",
+            nativeQuery = true)
+    int deleteByUserIdAndName(Long userId, String name);
 
-    Page<Contact> findAllByUser(User user, Pageable pageable);
+    @Query(value = "SELECT c.id AS id, c.name AS name, " +
+            "ARRAY(SELECT e.email FROM contacts_db.contact_emails e WHERE e.contact_id = c.id) AS emails, " +
+            "ARRAY(SELECT p.phone_number FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.contact_id = c.id) AS phones " +
+            "FROM contacts_db.contacts c WHERE c.user_id = :userId",
+            countQuery = "SELECT count(*) FROM contacts_db.contacts c WHERE c.user_id = :userId",
+            nativeQuery = true)
+    Page<ContactView> findAllViewsByUserId(Long userId, Pageable pageable);
 
-    boolean existsContactByUserAndEmailsContaining(User user, String email);
+    @Query(value = "SELECT c.id AS id, c.name AS name, " +
+            "ARRAY(SELECT e.email FROM contacts_db.contact_emails e WHERE e.contact_id = c.id) AS emails, " +
+            "ARRAY(SELECT p.phone_number FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.contact_id = c.id) AS phones " +
+            "FROM contacts_db.contacts c " +
+            "WHERE c.user_id = :userId AND (c.name, c.id) > (:name, :id) " +
+            "ORDER BY c.name, c.id LIMIT :limit",
+            nativeQuery = true)
+    List<ContactView> findViewsByUserIdAfter(Long userId, String name, Long id, int limit);
 
-    boolean existsContactByUserAndPhonesContaining(User user, String phone);
-}
+    @Query(value = "SELECT 'emails' AS field, e.email AS value FROM contacts_db.contact_emails e " +
+            "WHERE e.user_id = :userId AND e.email = ANY(CAST(:emails AS varchar[])) " +
+            "UNION ALL " +
+            "SELECT 'phones' AS field, p.phone_number AS value FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.user_id = :userId AND p.phone_key = ANY(CAST(:phoneKeys AS bigint[]))",
+            nativeQuery = true)
+    List<ContactConflict> findConflicts(Long userId, String[] emails, Long[] phoneKeys);
 
+    @Query(value = "SELECT c.id AS id, c.name AS name, " +
+            "ARRAY(SELECT e.email FROM contacts_db.contact_emails e WHERE e.contact_id = c.id) AS emails, " +
+            "ARRAY(SELECT p.phone_number FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.contact_id = c.id) AS phones " +
+            "FROM contacts_db.contacts c " +
+            "WHERE c.id = (SELECT p.contact_id FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.user_id = :userId AND p.phone_key = :phoneKey)",
+            nativeQuery = true)
+    Optional<ContactView> findViewByUserIdAndPhoneKey(Long userId, long phoneKey);
+
+    @Query(value = "WITH names AS (" +
+            "SELECT n.id AS id, 1 - (:query <<-> lower(n.name)) AS score FROM contacts_db.contacts n " +
+            "WHERE n.user_id = :userId AND :nameQuery <% lower(n.name) " +
+            "ORDER BY :nameQuery <<-> lower(n.name) LIMIT :limit), " +
+            "emails AS (" +
+            "SELECT e.contact_id AS id, 1 - (:query <<-> lower(e.email)) AS score FROM contacts_db.contact_emails e " +
+            "WHERE e.user_id = :userId AND :query <% lower(e.email) " +
+            "ORDER BY :query <<-> lower(e.email) LIMIT :limit), " +
+            "phones AS (" +
+            "SELECT * FROM ((SELECT p.contact_id AS id, 1.0 AS score FROM contacts_db.contact_phone_numbers p " +
+            "WHERE :searchPhones AND p.user_id = :userId AND p.phone_key BETWEEN :phoneKeyFrom AND :phoneKeyTo " +
+            "ORDER BY p.phone_key LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT p.contact_id AS id, 1.0 AS score FROM contacts_db.contact_phone_numbers p " +
+            "WHERE :searchPhones AND p.user_id = :userId AND CAST(p.phone_key AS text) LIKE :digitsPattern " +
+            "AND p.phone_key NOT BETWEEN :phoneKeyFrom AND :phoneKeyTo LIMIT :limit)) k " +
+            "LIMIT :limit) " +
+            "SELECT c.id AS id, c.name AS name, " +
+            "ARRAY(SELECT e.email FROM contacts_db.contact_emails e WHERE e.contact_id = c.id) AS emails, " +
+            "ARRAY(SELECT p.phone_number FROM contacts_db.contact_phone_numbers p " +
+            "WHERE p.contact_id = c.id) AS phones " +
+            "FROM (SELECT m.id AS id, max(m.score) AS score FROM " +
+            "(SELECT * FROM names UNION ALL SELECT * FROM emails UNION ALL SELECT * FROM phones) m " +
+            "GROUP BY m.id) r " +
+            "JOIN contacts_db.contacts c ON c.id = r.id " +
+            "ORDER BY r.score DESC, c.name, c.id LIMIT :limit",
+            nativeQuery = true)
+    List<ContactView> search(Long userId, String query, String nameQuery, boolean searchPhones,
+                             long phoneKeyFrom, long phoneKeyTo, String digitsPattern, int limit);
+
+    @Query(value = "SELECT string_agg(CASE WHEN t.term !~ '^[[:alpha:]]+$' OR EXISTS (" +
+            "SELECT 1 FROM contacts_db.contact_name_words w " +
+            "WHERE w.user_id = :userId AND w.word LIKE t.term || '%') THEN t.term " +
+            "ELSE coalesce((SELECT w.word FROM contacts_db.contact_name_words w " +
+            "WHERE w.user_id = :userId AND w.word % t.term ORDER BY w.word <-> t.term LIMIT 1), t.term) END, " +
+            "' ' ORDER BY t.n) " +
+            "FROM regexp_split_to_table(:query, '\\s+') WITH ORDINALITY t(term, n)",
+            nativeQuery = true)
+    String correctNameQuery(Long userId, String query);
+}
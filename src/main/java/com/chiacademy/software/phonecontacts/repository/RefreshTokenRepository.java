@@ -0,0 +1,83 @@
+package com.chiacademy.software.phonecontacts.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+
+    private static final String INSERT_TOKEN = """
+            INSERT INTO contacts_db.refresh_tokens (token_hash, user_id, family_id, expires_at)
+            VALUES (?, ?, ?, ?)""";
+    private static final String CONSUME_TOKEN = """
+            UPDATE contacts_db.refresh_tokens t SET used_at = now()
+            FROM contacts_db.users u
+            WHERE t.token_hash = ? AND t.used_at IS NULL AND t.revoked_at IS NULL
+              AND t.expires_at > now() AND u.id = t.user_id
+            RETURNING t.user_id, t.family_id, u.login""";
+    private static final String USED_TOKEN = """
+            SELECT t.user_id, t.family_id, u.login FROM contacts_db.refresh_tokens t
+            JOIN contacts_db.users u ON u.id = t.user_id
+            WHERE t.token_hash = ? AND t.used_at IS NOT NULL""";
+    private static final String TOKEN_FAMILY =
+            "SELECT t.family_id FROM contacts_db.refresh_tokens t WHERE t.token_hash = ?";
+    private static final String REVOKE_FAMILY = """
+            UPDATE contacts_db.refresh_tokens SET revoked_at = now()
+            WHERE family_id = ? AND revoked_at IS NULL""";
+    private static final String REVOKE_USER = """
+            UPDATE contacts_db.refresh_tokens SET revoked_at = now()
+            WHERE user_id = ? AND revoked_at IS NULL""";
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM contacts_db.refresh_tokens WHERE user_id = ? AND expires_at <= now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(byte[] tokenHash, Long userId, UUID familyId, Instant expiresAt) {
+        jdbcTemplate.update(INSERT_TOKEN, tokenHash, userId, familyId, Timestamp.from(expiresAt));
+    }
+
+    public Optional<ConsumedToken> consume(byte[] tokenHash) {
+        return jdbcTemplate.query(CONSUME_TOKEN, rs -> rs.next()
+                ? Optional.of(new ConsumedToken(rs.getLong("user_id"), rs.getObject("family_id", UUID.class),
+                rs.getString("login")))
+                : Optional.empty(), (Object) tokenHash);
+    }
+
+    public Optional<UsedToken> findUsedToken(byte[] tokenHash) {
+        return jdbcTemplate.query(USED_TOKEN, rs -> rs.next()
+                ? Optional.of(new UsedToken(rs.getLong("user_id"), rs.getObject("family_id", UUID.class),
+                rs.getString("login")))
+                : Optional.empty(), (Object) tokenHash);
+    }
+
+    public Optional<UUID> findTokenFamily(byte[] tokenHash) {
+        return jdbcTemplate.query(TOKEN_FAMILY, rs -> rs.next()
+                ? Optional.of(rs.getObject(1, UUID.class))
+                : Optional.empty(), (Object) tokenHash);
+    }
+
+    public int revokeFamily(UUID familyId) {
+        return jdbcTemplate.update(REVOKE_FAMILY, familyId);
+    }
+
+    public int revokeByUserId(Long userId) {
+        return jdbcTemplate.update(REVOKE_USER, userId);
+    }
+
+    public int deleteExpired(Long userId) {
+        return jdbcTemplate.update(DELETE_EXPIRED, userId);
+    }
+
+    public record ConsumedToken(Long userId, UUID familyId, String login) {
+    }
+
+    public record UsedToken(Long userId, UUID familyId, String login) {
+    }
+}
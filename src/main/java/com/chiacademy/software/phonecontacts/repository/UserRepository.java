@@ -1,7 +1,11 @@
 package com.chiacademy.software.phonecontacts.repository;
 
 import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.security.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByLogin(String login);
 
     Optional<User> findByLogin(String login);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.chiacademy.software.phonecontacts.security.UserPrincipal(" +
+            "u.id, u.login, u.password, u.role, u.tokenVersion) FROM User u WHERE u.login=:login")
+    Optional<UserPrincipal> findPrincipalByLogin(String login);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id=:id")
+    Optional<Integer> findTokenVersionById(Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id=:id")
+    void incrementTokenVersion(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT u.contactsVersion FROM User u WHERE u.id=:id")
+    Optional<Long> findContactsVersionById(Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.contactsVersion = u.contactsVersion + 1 WHERE u.id=:id")
+    void incrementContactsVersion(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePassword(Long id, String oldPassword, String password);
 }
\ No newline at end of file
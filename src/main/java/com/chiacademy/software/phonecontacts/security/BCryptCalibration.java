@@ -0,0 +1,42 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public final class BCryptCalibration {
+
+    private static final int PROBE_STRENGTH = 8;
+    private static final int SAMPLES = 5;
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(Duration targetTime, int minStrength, int maxStrength) {
+        return strengthFor(targetTime.toNanos(), probeTime(), minStrength, maxStrength);
+    }
+
+    static int strengthFor(long targetNanos, long probeNanos, int minStrength, int maxStrength) {
+        int strength = PROBE_STRENGTH;
+        long nanos = Math.max(1, probeNanos);
+        while (strength < maxStrength && nanos * 2 <= targetNanos) {
+            nanos *= 2;
+            strength++;
+        }
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+
+    private static long probeTime() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        encoder.encode("calibration");
+        long[] times = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[SAMPLES / 2];
+    }
+}
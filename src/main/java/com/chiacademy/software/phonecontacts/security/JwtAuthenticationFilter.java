@@ -1,11 +1,15 @@
 package com.chiacademy.software.phonecontacts.security;
 
 import com.chiacademy.software.phonecontacts.service.JwtService;
+import com.chiacademy.software.phonecontacts.service.TokenVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,13 +21,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenVersionService tokenVersionService,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.validTokens = Timer.builder("contacts.jwt.verification").tag("outcome", "valid").register(registry);
+        this.invalidTokens = Timer.builder("contacts.jwt.verification").tag("outcome", "invalid").register(registry);
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -35,10 +54,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         final String jwt = authHeader.substring(7);
-        final String login = jwtService.extractLogin(jwt);
+        final VerifiedToken token = verify(jwt);
+        final String login = token.getSubject();
         if (login != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = userDetailsService.loadUserByUsername(login);
-            if (jwtService.isTokenValid(jwt, userDetails)){
+            UserDetails userDetails;
+            boolean isValid;
+            if (jwtService.isStatelessPrincipal(token)) {
+                UserPrincipal principal = jwtService.toPrincipal(token);
+                userDetails = principal;
+                isValid = !token.isExpired() && tokenVersionService.isCurrent(principal);
+            } else {
+                userDetails = userDetailsService.loadUserByUsername(login);
+                isValid = jwtService.isTokenValid(token, userDetails)
+                        && userDetails instanceof UserPrincipal principal
+                        && tokenVersionService.isCurrent(principal.getId(), jwtService.getTokenVersion(token));
+            }
+            if (isValid){
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -50,4 +81,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private VerifiedToken verify(String jwt) {
+        long start = System.nanoTime();
+        try {
+            VerifiedToken token = jwtService.verify(jwt);
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return token;
+        } catch (RuntimeException e) {
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.chiacademy.software.phonecontacts.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -32,6 +35,8 @@ public class SecurityConfiguration {
                         auth
                                 .requestMatchers(HttpMethod.POST, "/api/v1/users/**")
                                 .permitAll()
+                                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class))
+                                .permitAll()
                                 .anyRequest()
                                 .authenticated()
                 )
@@ -0,0 +1,74 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import com.chiacademy.software.phonecontacts.config.ReplicaRoutingDataSource;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.utils.Caches;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+    private final AsyncLoadingCache<String, UserPrincipal> cache;
+    private final boolean retryOnPrimary;
+
+    public UserDetailsCache(UserRepository userRepository, long maximumSize, Duration refreshAfterWrite,
+                            Duration expireAfterWrite) {
+        this(userRepository, maximumSize, refreshAfterWrite, expireAfterWrite, false);
+    }
+
+    @Autowired
+    public UserDetailsCache(UserRepository userRepository,
+                            @Value("${usercache.maximum-size:10000}") long maximumSize,
+                            @Value("${usercache.refresh-after-write:10m}") Duration refreshAfterWrite,
+                            @Value("${usercache.expire-after-write:1h}") Duration expireAfterWrite,
+                            ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        this(userRepository, maximumSize, refreshAfterWrite, expireAfterWrite, replicaRouting.getIfAvailable() != null);
+    }
+
+    private UserDetailsCache(UserRepository userRepository, long maximumSize, Duration refreshAfterWrite,
+                             Duration expireAfterWrite, boolean retryOnPrimary) {
+        this.userRepository = userRepository;
+        this.retryOnPrimary = retryOnPrimary;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync(key -> findPrincipal(key).orElse(null));
+    }
+
+    public UserPrincipal loadUserByLogin(String login) {
+        UserPrincipal principal = Caches.get(cache, login, key -> findPrincipal(key).orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("The user is not found");
+        }
+        return principal;
+    }
+
+    private Optional<UserPrincipal> findPrincipal(String login) {
+        Optional<UserPrincipal> principal = userRepository.findPrincipalByLogin(login);
+        if (principal.isEmpty() && retryOnPrimary) {
+            return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findPrincipalByLogin(login));
+        }
+        return principal;
+    }
+
+    public void invalidate(String login) {
+        cache.synchronous().invalidate(login);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
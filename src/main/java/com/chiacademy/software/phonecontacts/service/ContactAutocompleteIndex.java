@@ -0,0 +1,111 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.repository.ContactJdbcRepository;
+import com.chiacademy.software.phonecontacts.utils.Caches;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+@Component
+public class ContactAutocompleteIndex {
+
+    private static final Pattern PHONE_PREFIX = Pattern.compile("[+\\d\\s().-]+");
+
+    private final ContactJdbcRepository contactJdbcRepository;
+    private final int fetchSize;
+    private final AsyncCache<Long, ContactSuggestions> cache;
+
+    public ContactAutocompleteIndex(ContactJdbcRepository contactJdbcRepository,
+                                    @Value("${contacts.autocomplete.memory-budget:64MB}") DataSize memoryBudget,
+                                    @Value("${contacts.autocomplete.fetch-size:1000}") int fetchSize) {
+        this.contactJdbcRepository = contactJdbcRepository;
+        this.fetchSize = fetchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(memoryBudget.toBytes())
+                .weigher((Long userId, ContactSuggestions suggestions) -> suggestions.weight())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public List<String> suggest(Long userId, String prefix, int limit) {
+        ContactSuggestions suggestions = Caches.get(cache, userId, this::load);
+        String term = prefix.trim().toLowerCase(Locale.ROOT);
+        Set<String> result = new LinkedHashSet<>();
+        suggestions.collect(term, limit, result);
+        if (PHONE_PREFIX.matcher(term).matches()) {
+            String digits = PhoneNumbers.digits(term);
+            if (!digits.isEmpty() && !digits.equals(term)) {
+                suggestions.collect(digits, limit, result);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    public void put(Long userId, ContactDto contact) {
+        update(userId, suggestions -> suggestions.with(contact));
+    }
+
+    public void replace(Long userId, String oldName, ContactDto contact) {
+        update(userId, suggestions -> suggestions.without(oldName).with(contact));
+    }
+
+    public void remove(Long userId, String name) {
+        update(userId, suggestions -> suggestions.without(name));
+    }
+
+    public void remove(Long userId, Collection<String> names) {
+        if (!names.isEmpty()) {
+            update(userId, suggestions -> suggestions.without(names));
+        }
+    }
+
+    public void invalidate(Long userId) {
+        afterCommit(() -> cache.synchronous().invalidate(userId));
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private void update(Long userId, UnaryOperator<ContactSuggestions> change) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, suggestions) -> suggestions.isDone() && !suggestions.isCompletedExceptionally()
+                ? CompletableFuture.completedFuture(change.apply(suggestions.join()))
+                : null));
+    }
+
+    private ContactSuggestions load(Long userId) {
+        List<ContactDto> contacts = new ArrayList<>();
+        contactJdbcRepository.streamByUserId(userId, fetchSize, contacts::add);
+        return contacts.isEmpty() ? ContactSuggestions.EMPTY : ContactSuggestions.of(contacts);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.Principal;
+
+public interface ContactFileService {
+
+    ContactImportReport importContacts(InputStream input, ContactFileFormat format, Principal principal) throws IOException;
+
+    void exportContacts(Long userId, ContactFileFormat format, OutputStream output) throws IOException;
+}
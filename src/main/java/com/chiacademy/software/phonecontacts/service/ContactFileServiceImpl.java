@@ -0,0 +1,332 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.exception.Error;
+import com.chiacademy.software.phonecontacts.exception.InvalidContactFileException;
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportError;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+import com.chiacademy.software.phonecontacts.repository.ContactJdbcRepository;
+import com.chiacademy.software.phonecontacts.repository.ContactRepository;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class ContactFileServiceImpl implements ContactFileService {
+
+    public static final String INVALID_CSV_HEADER = "CSV header must be: name,emails,phones";
+    public static final String CONCURRENTLY_CHANGED = "Contacts were changed by another request, import the row again";
+
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("name")
+            .addArrayColumn("emails", ";")
+            .addArrayColumn("phones", ";")
+            .build();
+
+    private final ContactJdbcRepository contactJdbcRepository;
+    private final ContactRepository contactRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactAutocompleteIndex contactAutocompleteIndex;
+
+    @Value("${contacts.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${contacts.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${contacts.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public ContactImportReport importContacts(InputStream input, ContactFileFormat format,
+                                              Principal principal) throws IOException {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<ContactDto> rows = readRows(input, format)) {
+            while (true) {
+                long rowNumber = 0;
+                ContactDto contact;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber = rowNumber(rows.getParser().getTokenLocation(), format);
+                    contact = rows.nextValue();
+                } catch (JsonParseException e) {
+                    rejectUnreadable(rowNumber > 0 ? rowNumber : rowNumber(e.getLocation(), format), e, progress);
+                    break;
+                } catch (JsonProcessingException e) {
+                    rejectUnreadable(rowNumber, e, progress);
+                    continue;
+                }
+                contact = validateRow(contact, rowNumber, progress);
+                if (contact == null) {
+                    continue;
+                }
+                chunk.add(new ImportRow(rowNumber, contact));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(userId, chunk, progress);
+                }
+            }
+            writeChunk(userId, chunk, progress);
+        }
+        return progress.toReport();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportContacts(Long userId, ContactFileFormat format, OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(format, output)) {
+            contactJdbcRepository.streamByUserId(userId, fetchSize, contact -> {
+                try {
+                    writeContact(generator, format, contact);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private JsonGenerator createGenerator(ContactFileFormat format, OutputStream output) throws IOException {
+        if (format == ContactFileFormat.CSV) {
+            CsvGenerator generator = CSV_MAPPER.getFactory().createGenerator(output);
+            generator.setSchema(CSV_SCHEMA.withHeader());
+            return generator;
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void writeContact(JsonGenerator generator, ContactFileFormat format, ContactDto contact) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", contact.getName());
+        writeValues(generator, "emails", contact.getEmails());
+        writeValues(generator, "phones", contact.getPhones());
+        generator.writeEndObject();
+        if (format == ContactFileFormat.NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void writeValues(JsonGenerator generator, String field, Collection<String> values) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+
+    private MappingIterator<ContactDto> readRows(InputStream input, ContactFileFormat format) throws IOException {
+        if (format == ContactFileFormat.NDJSON) {
+            return objectMapper.readerFor(ContactDto.class).readValues(input);
+        }
+        try {
+            return CSV_MAPPER.readerFor(ContactDto.class)
+                    .with(CSV_SCHEMA.withHeader().withStrictHeaders(true))
+                    .readValues(input);
+        } catch (JsonProcessingException e) {
+            throw new InvalidContactFileException(INVALID_CSV_HEADER, e.getOriginalMessage());
+        }
+    }
+
+    private static long rowNumber(JsonLocation location, ContactFileFormat format) {
+        return format == ContactFileFormat.CSV ? location.getLineNr() + 1 : location.getLineNr();
+    }
+
+    private void rejectUnreadable(long rowNumber, JsonProcessingException e, ImportProgress progress) {
+        progress.reject(rowNumber, null, List.of(Error.builder()
+                .message("Values can not be read")
+                .wrongValue(e.getOriginalMessage()).build()));
+    }
+
+    private ContactDto validateRow(ContactDto contact, long rowNumber, ImportProgress progress) {
+        if (contact.getEmails() == null) {
+            contact.setEmails(Set.of());
+        }
+        if (contact.getPhones() == null) {
+            contact.setPhones(Set.of());
+        }
+        List<Error> problems = new ArrayList<>();
+        if (contact.getName() == null) {
+            problems.add(Error.builder().message("Contact name must not be empty").field("name").build());
+        }
+        for (ConstraintViolation<ContactDto> cv : validator.validate(contact)) {
+            problems.add(Error.builder()
+                    .message(cv.getMessage())
+                    .field(cv.getPropertyPath().iterator().next().getName())
+                    .wrongValue(cv.getInvalidValue() == null ? null : cv.getInvalidValue().toString()).build());
+        }
+        if (!problems.isEmpty()) {
+            progress.reject(rowNumber, contact.getName(), problems);
+            return null;
+        }
+        contact.setPhones(PhoneNumbers.normalize(contact.getPhones()));
+        return contact;
+    }
+
+    private void writeChunk(Long userId, List<ImportRow> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ChunkResult result = null;
+        for (int attempt = 1; result == null; attempt++) {
+            try {
+                result = transactionTemplate.execute(status -> insertChunk(userId, chunk));
+            } catch (DuplicateKeyException e) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    result = rejectConcurrentlyChanged(chunk);
+                }
+            }
+        }
+        result.rejected().forEach(error -> progress.reject(error.getRow(), error.getName(), error.getProblems()));
+        progress.imported(result.imported());
+        chunk.clear();
+    }
+
+    private ChunkResult insertChunk(Long userId, List<ImportRow> chunk) {
+        Set<String> names = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ImportRow row : chunk) {
+            names.add(row.contact().getName());
+            emails.addAll(row.contact().getEmails());
+            phones.addAll(row.contact().getPhones());
+        }
+        Set<String> takenNames = contactJdbcRepository.findExistingNames(userId, names);
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhones = new HashSet<>();
+        for (ContactConflict conflict : contactRepository.findConflicts(userId, emails.toArray(String[]::new),
+                phones.stream().map(PhoneNumbers::toKey).toArray(Long[]::new))) {
+            ("emails".equals(conflict.getField()) ? takenEmails : takenPhones).add(conflict.getValue());
+        }
+        List<ContactDto> accepted = new ArrayList<>(chunk.size());
+        List<ContactImportError> rejected = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            ContactDto contact = row.contact();
+            List<Error> problems = findConflicts(contact, takenNames, takenEmails, takenPhones);
+            if (problems.isEmpty()) {
+                takenNames.add(contact.getName());
+                takenEmails.addAll(contact.getEmails());
+                takenPhones.addAll(contact.getPhones());
+                accepted.add(contact);
+            } else {
+                rejected.add(ContactImportError.builder()
+                        .row(row.number()).name(contact.getName()).problems(problems).build());
+            }
+        }
+        contactJdbcRepository.insertAll(userId, accepted);
+        if (!accepted.isEmpty()) {
+            userRepository.incrementContactsVersion(userId);
+            contactAutocompleteIndex.invalidate(userId);
+        }
+        return new ChunkResult(accepted.size(), rejected);
+    }
+
+    private static ChunkResult rejectConcurrentlyChanged(List<ImportRow> chunk) {
+        List<ContactImportError> rejected = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            rejected.add(ContactImportError.builder()
+                    .row(row.number())
+                    .name(row.contact().getName())
+                    .problems(List.of(Error.builder().message(CONCURRENTLY_CHANGED).build())).build());
+        }
+        return new ChunkResult(0, rejected);
+    }
+
+    private List<Error> findConflicts(ContactDto contact, Set<String> takenNames,
+                                      Set<String> takenEmails, Set<String> takenPhones) {
+        List<Error> problems = new ArrayList<>();
+        if (takenNames.contains(contact.getName())) {
+            problems.add(Error.builder().message("Contact with such name already exists")
+                    .field("name").wrongValue(contact.getName()).build());
+        }
+        contact.getEmails().stream().filter(takenEmails::contains)
+                .forEach(email -> problems.add(Error.builder().message("Such email is already present in your contacts")
+                        .field("emails").wrongValue(email).build()));
+        contact.getPhones().stream().filter(takenPhones::contains)
+                .forEach(phone -> problems.add(Error.builder().message("Such phone is already present in your contacts")
+                        .field("phones").wrongValue(phone).build()));
+        return problems;
+    }
+
+    private record ImportRow(long number, ContactDto contact) {
+    }
+
+    private record ChunkResult(int imported, List<ContactImportError> rejected) {
+    }
+
+    private static class ImportProgress {
+
+        private final int maxReportedErrors;
+        private final List<ContactImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void imported(int count) {
+            imported += count;
+        }
+
+        private void reject(long row, String name, List<Error> problems) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ContactImportError.builder().row(row).name(name).problems(problems).build());
+            }
+        }
+
+        private ContactImportReport toReport() {
+            errors.sort(Comparator.comparingLong(ContactImportError::getRow));
+            return ContactImportReport.builder()
+                    .totalRows(imported + rejected)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors).build();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.chiacademy.software.phonecontacts.service;
 
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDeleteReport;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
 
 import java.security.Principal;
+import java.util.List;
 
 public interface ContactService {
 
@@ -11,7 +13,17 @@ public interface ContactService {
 
     void delete(String contactName, Principal principal);
 
-    Contact editContactByName(ContactDto dto, String oldContactName, Principal principal);
+    ContactDeleteReport deleteAll(List<String> contactNames, Principal principal);
+
+    ContactDto editContactByName(ContactDto dto, String oldContactName, Principal principal);
+
+    ContactDto patchContactByName(ContactPatchDto patch, String contactName, Principal principal);
+
+    ContactDto findByPhone(String phone, Principal principal);
+
+    List<ContactDto> search(String query, int limit, Principal principal);
+
+    List<String> autocomplete(String prefix, int limit, Principal principal);
 }
 
 
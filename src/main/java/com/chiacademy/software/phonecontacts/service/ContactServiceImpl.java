@@ -1,80 +1,227 @@
 package com.chiacademy.software.phonecontacts.service;
 
+import com.chiacademy.software.phonecontacts.exception.ContactDataAlreadyExistsException;
 import com.chiacademy.software.phonecontacts.exception.NotFoundException;
 import com.chiacademy.software.phonecontacts.model.Contact;
 import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDeleteReport;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactView;
+import com.chiacademy.software.phonecontacts.repository.ContactJdbcRepository;
 import com.chiacademy.software.phonecontacts.repository.ContactRepository;
 import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
 
 @Service
+@Timed("contacts.service")
 @Transactional
 @RequiredArgsConstructor
 public class ContactServiceImpl implements ContactService {
 
+    private static final int MIN_SEARCH_DIGITS = 3;
+    private static final Pattern PHONE_QUERY = Pattern.compile("[0-9\\s+()\\-.]+");
+
     private final ContactRepository contactRepository;
+    private final ContactJdbcRepository contactJdbcRepository;
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final ContactAutocompleteIndex contactAutocompleteIndex;
 
     @Override
     public ContactDto create(ContactDto request, Principal principal) {
         User user = getUser(principal);
-        boolean isDuplicateEmailPresentInTheSameUser = Stream.of(request)
-                .map(ContactDto::getEmails)
-                .flatMap(Set::stream)
-                .anyMatch(email -> contactRepository.existsContactByUserAndEmailsContaining(user, email));
-        boolean isDuplicatePhonePresentInTheSameUser = Stream.of(request)
-                .map(ContactDto::getPhones)
-                .flatMap(Set::stream)
-                .anyMatch(phone -> contactRepository.existsContactByUserAndPhonesContaining(user, phone));
-        if (isDuplicateEmailPresentInTheSameUser || isDuplicatePhonePresentInTheSameUser) {
-            throw new DataIntegrityViolationException("Such phone/email is already present in your contacts");
-        }
+        request.setPhones(PhoneNumbers.normalize(request.getPhones()));
+        checkConflicts(user.getId(), request.getEmails(), request.getPhones());
         Contact contact = Contact.builder()
                 .name(request.getName())
                 .emails(request.getEmails())
                 .phones(request.getPhones())
                 .user(user).build();
         contactRepository.save(contact);
+        userRepository.incrementContactsVersion(user.getId());
+        contactAutocompleteIndex.put(user.getId(), request);
         return request;
     }
 
     @Override
     public void delete(String contactName, Principal principal) {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        if (contactRepository.deleteByUserIdAndName(userId, contactName) == 0) {
+            throw new NotFoundException("There is no contact present by such name", contactName);
+        }
+        userRepository.incrementContactsVersion(userId);
+        contactAutocompleteIndex.remove(userId, contactName);
+    }
+
+    @Override
+    public ContactDeleteReport deleteAll(List<String> contactNames, Principal principal) {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        List<String> names = contactNames.stream().distinct().toList();
+        Set<String> deleted = contactJdbcRepository.deleteByNames(userId, names);
+        if (!deleted.isEmpty()) {
+            userRepository.incrementContactsVersion(userId);
+        }
+        contactAutocompleteIndex.remove(userId, deleted);
+        return ContactDeleteReport.builder()
+                .deleted(names.stream().filter(deleted::contains).toList())
+                .notFound(names.stream().filter(name -> !deleted.contains(name)).toList())
+                .build();
+    }
+
+    @Override
+    public ContactDto editContactByName(ContactDto dto, String oldContactName, Principal principal) {
         User user = getUser(principal);
-        Contact contact = getContact(contactName, user);
-        contactRepository.deleteContactById(contact.getId());
+        Contact contact = getContactWithEmailsAndPhones(oldContactName, user);
+        Set<String> phones = PhoneNumbers.normalize(dto.getPhones());
+        checkConflicts(user.getId(), added(contact.getEmails(), dto.getEmails()), added(contact.getPhones(), phones));
+        contact.setName(dto.getName());
+        replaceValues(contact.getEmails(), dto.getEmails());
+        replaceValues(contact.getPhones(), phones);
+        userRepository.incrementContactsVersion(user.getId());
+        ContactDto result = toContactDto(contact);
+        contactAutocompleteIndex.replace(user.getId(), oldContactName, result);
+        return result;
     }
 
     @Override
-    public Contact editContactByName(ContactDto dto, String oldContactName, Principal principal) {
+    public ContactDto patchContactByName(ContactPatchDto patch, String contactName, Principal principal) {
         User user = getUser(principal);
-        Contact oldContact = getContact(oldContactName, user);
-        Contact updatedContact = Contact.builder()
-                .id(oldContact.getId())
-                .name(dto.getName())
-                .emails(dto.getEmails())
-                .phones(dto.getPhones())
-                .user(user).build();
-        return contactRepository.save(updatedContact);
+        Contact contact = getContactWithEmailsAndPhones(contactName, user);
+        Set<String> addPhones = PhoneNumbers.normalize(patch.getAddPhones());
+        checkConflicts(user.getId(), added(contact.getEmails(), patch.getAddEmails()),
+                added(contact.getPhones(), addPhones));
+        if (patch.getName() != null) {
+            contact.setName(patch.getName());
+        }
+        changeValues(contact.getEmails(), patch.getAddEmails(), patch.getRemoveEmails());
+        changeValues(contact.getPhones(), addPhones, PhoneNumbers.normalize(patch.getRemovePhones()));
+        userRepository.incrementContactsVersion(user.getId());
+        ContactDto result = toContactDto(contact);
+        contactAutocompleteIndex.replace(user.getId(), contactName, result);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContactDto findByPhone(String phone, Principal principal) {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        return contactRepository.findViewByUserIdAndPhoneKey(userId, PhoneNumbers.toKey(phone))
+                .map(this::toContactDto)
+                .orElseThrow(() -> new NotFoundException("There is no contact present by such phone", phone));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContactDto> search(String query, int limit, Principal principal) {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        String digits = PhoneNumbers.digits(normalized);
+        boolean searchPhones = PHONE_QUERY.matcher(normalized).matches()
+                && digits.length() >= MIN_SEARCH_DIGITS && digits.length() <= PhoneNumbers.KEY_DIGITS;
+        String nameQuery = contactRepository.correctNameQuery(userId, normalized);
+        return contactRepository.search(userId, normalized, nameQuery == null ? normalized : nameQuery,
+                        searchPhones, phoneKeyBound(digits, '0'), phoneKeyBound(digits, '9'), "%" + digits + "%", limit)
+                .stream()
+                .map(this::toContactDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> autocomplete(String prefix, int limit, Principal principal) {
+        Long userId = userDetailsCache.loadUserByLogin(principal.getName()).getId();
+        return contactAutocompleteIndex.suggest(userId, prefix, limit);
+    }
+
+    private static long phoneKeyBound(String digits, char fill) {
+        if (digits.isEmpty() || digits.length() > PhoneNumbers.KEY_DIGITS) {
+            return 0;
+        }
+        return Long.parseLong(digits + String.valueOf(fill).repeat(PhoneNumbers.KEY_DIGITS - digits.length()));
+    }
+
+    private ContactDto toContactDto(Contact contact) {
+        return ContactDto.builder()
+                .name(contact.getName())
+                .emails(new HashSet<>(contact.getEmails()))
+                .phones(new HashSet<>(contact.getPhones()))
+                .build();
+    }
+
+    private ContactDto toContactDto(ContactView view) {
+        return ContactDto.builder()
+                .name(view.getName())
+                .emails(view.getEmails())
+                .phones(view.getPhones())
+                .build();
+    }
+
+    private void checkConflicts(Long userId, Set<String> emails, Set<String> phones) {
+        String[] emailValues = toArray(emails);
+        Long[] phoneKeys = toPhoneKeys(phones);
+        if (emailValues.length == 0 && phoneKeys.length == 0) {
+            return;
+        }
+        List<ContactConflict> conflicts = contactRepository.findConflicts(userId, emailValues, phoneKeys);
+        if (!conflicts.isEmpty()) {
+            throw new ContactDataAlreadyExistsException("Such phone/email is already present in your contacts",
+                    conflicts);
+        }
+    }
+
+    private static Set<String> added(Set<String> values, Set<String> newValues) {
+        if (newValues == null) {
+            return Set.of();
+        }
+        Set<String> added = new HashSet<>(newValues);
+        added.removeAll(values);
+        return added;
+    }
+
+    private static String[] toArray(Set<String> values) {
+        return values == null ? new String[0] : values.toArray(String[]::new);
+    }
+
+    private static Long[] toPhoneKeys(Set<String> phones) {
+        return phones == null ? new Long[0] : phones.stream().map(PhoneNumbers::toKey).toArray(Long[]::new);
+    }
+
+    private static void replaceValues(Set<String> values, Set<String> newValues) {
+        Set<String> target = newValues == null ? Set.of() : newValues;
+        values.retainAll(target);
+        values.addAll(target);
+    }
+
+    private static void changeValues(Set<String> values, Set<String> added, Set<String> removed) {
+        if (removed != null) {
+            values.removeAll(removed);
+        }
+        if (added != null) {
+            values.addAll(added);
+        }
     }
 
-    private Contact getContact(String contactName, User user) {
-        return contactRepository.findContactByNameAndUser(contactName, user)
+    private Contact getContactWithEmailsAndPhones(String contactName, User user) {
+        return contactRepository.findContactWithEmailsAndPhonesByNameAndUser(contactName, user)
                 .orElseThrow(() -> new NotFoundException("There is no contact present by such name", contactName));
     }
 
     private User getUser(Principal principal) {
-        return userRepository.findByLogin(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("No user found"));
+        return userRepository.getReferenceById(userDetailsCache.loadUserByLogin(principal.getName()).getId());
     }
 
 }
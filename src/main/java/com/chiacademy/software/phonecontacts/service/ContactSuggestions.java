@@ -0,0 +1,128 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class ContactSuggestions {
+
+    public static final ContactSuggestions EMPTY = new ContactSuggestions(new String[0], new String[0]);
+
+    private static final int ENTRY_BYTES = 64;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::term).thenComparing(Entry::name);
+
+    private final String[] terms;
+    private final String[] names;
+    private final int weight;
+
+    private ContactSuggestions(String[] terms, String[] names) {
+        this.terms = terms;
+        this.names = names;
+        long bytes = 0;
+        for (String term : terms) {
+            bytes += ENTRY_BYTES + term.length();
+        }
+        this.weight = (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    public static ContactSuggestions of(List<ContactDto> contacts) {
+        List<Entry> entries = new ArrayList<>();
+        contacts.forEach(contact -> addEntries(contact, entries));
+        entries.sort(ORDER);
+        return fromSorted(entries);
+    }
+
+    public ContactSuggestions with(ContactDto contact) {
+        List<Entry> added = new ArrayList<>();
+        addEntries(contact, added);
+        added.sort(ORDER);
+        List<Entry> merged = new ArrayList<>(terms.length + added.size());
+        int i = 0;
+        int j = 0;
+        while (i < terms.length || j < added.size()) {
+            if (i < terms.length && names[i].equals(contact.getName())) {
+                i++;
+            } else if (j == added.size()
+                    || i < terms.length && ORDER.compare(new Entry(terms[i], names[i]), added.get(j)) <= 0) {
+                merged.add(new Entry(terms[i], names[i]));
+                i++;
+            } else {
+                merged.add(added.get(j++));
+            }
+        }
+        return fromSorted(merged);
+    }
+
+    public ContactSuggestions without(String name) {
+        return without(Set.of(name));
+    }
+
+    public ContactSuggestions without(Collection<String> removed) {
+        List<Entry> kept = new ArrayList<>(terms.length);
+        for (int i = 0; i < terms.length; i++) {
+            if (!removed.contains(names[i])) {
+                kept.add(new Entry(terms[i], names[i]));
+            }
+        }
+        return kept.size() == terms.length ? this : fromSorted(kept);
+    }
+
+    public void collect(String prefix, int limit, Set<String> result) {
+        int i = Arrays.binarySearch(terms, prefix);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        while (i > 0 && terms[i - 1].equals(prefix)) {
+            i--;
+        }
+        for (; i < terms.length && result.size() < limit && terms[i].startsWith(prefix); i++) {
+            result.add(names[i]);
+        }
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    private static void addEntries(ContactDto contact, List<Entry> entries) {
+        String name = contact.getName();
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        entries.add(new Entry(lowerName, name));
+        for (int i = lowerName.indexOf(' '); i >= 0; i = lowerName.indexOf(' ', i + 1)) {
+            if (i + 1 < lowerName.length() && lowerName.charAt(i + 1) != ' ') {
+                entries.add(new Entry(lowerName.substring(i + 1), name));
+            }
+        }
+        if (contact.getEmails() != null) {
+            contact.getEmails().forEach(email -> entries.add(new Entry(email.toLowerCase(Locale.ROOT), name)));
+        }
+        if (contact.getPhones() != null) {
+            contact.getPhones().forEach(phone -> entries.add(new Entry(PhoneNumbers.digits(phone), name)));
+        }
+    }
+
+    private static ContactSuggestions fromSorted(List<Entry> entries) {
+        String[] terms = new String[entries.size()];
+        String[] names = new String[entries.size()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = entries.get(i).term();
+            names[i] = entries.get(i).name();
+        }
+        return new ContactSuggestions(terms, names);
+    }
+
+    private record Entry(String term, String name) {
+    }
+}
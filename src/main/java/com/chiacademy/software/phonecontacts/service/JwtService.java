@@ -1,6 +1,10 @@
 package com.chiacademy.software.phonecontacts.service;
 
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.security.UserPrincipal;
+import com.chiacademy.software.phonecontacts.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -10,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,24 +22,46 @@ import java.util.function.Function;
 
 @Service
 public class JwtService {
-    @Value("${jwtservice.secretkey}")
-    private String SECRET_KEY;
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final boolean statelessPrincipal;
+    private final long accessTokenTtlMillis;
+
+    public JwtService(@Value("${jwtservice.secretkey}") String secretKey,
+                      @Value("${jwtservice.stateless-principal:false}") boolean statelessPrincipal,
+                      @Value("${jwtservice.access-token-ttl:24m}") Duration accessTokenTtl) {
+        this.statelessPrincipal = statelessPrincipal;
+        this.accessTokenTtlMillis = accessTokenTtl.toMillis();
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    public VerifiedToken verify(String jwtToken) {
+        Claims claims = jwtParser.parseClaimsJws(jwtToken).getBody();
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims);
+    }
 
     public String extractLogin(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getSubject);
+        return verify(jwtToken).getSubject();
     }
 
     public <T> T extractClaim(String jwtToken, Function<Claims, T> claimsResolver) {
-        Claims claims = extractAllClaims(jwtToken);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(jwtToken).getClaims());
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder().setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtlMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -42,29 +69,40 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
-    public boolean isTokenValid(String jwtToken, UserDetails userDetails) {
-        String login = extractLogin(jwtToken);
-        return login.equals(userDetails.getUsername()) && !isTokenExpired(jwtToken);
+    public String generateToken(UserPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
+        if (statelessPrincipal) {
+            claims.put(USER_ID_CLAIM, principal.getId());
+            claims.put(ROLE_CLAIM, principal.getRole().name());
+        }
+        return generateToken(claims, principal);
     }
 
-    private boolean isTokenExpired(String jwtToken) {
-        return extractExpirationDate(jwtToken).before(new Date());
+    public boolean isStatelessPrincipal(VerifiedToken token) {
+        return statelessPrincipal && token.getClaims().containsKey(USER_ID_CLAIM);
     }
 
-    private Date extractExpirationDate(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getExpiration);
+    public UserPrincipal toPrincipal(VerifiedToken token) {
+        Claims claims = token.getClaims();
+        return UserPrincipal.builder()
+                .id(claims.get(USER_ID_CLAIM, Long.class))
+                .login(token.getSubject())
+                .role(Role.valueOf(claims.get(ROLE_CLAIM, String.class)))
+                .tokenVersion(getTokenVersion(token))
+                .build();
     }
 
-    private Claims extractAllClaims(String jwtToken) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(jwtToken)
-                .getBody();
+    public int getTokenVersion(VerifiedToken token) {
+        Integer tokenVersion = token.getClaims().get(TOKEN_VERSION_CLAIM, Integer.class);
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public boolean isTokenValid(String jwtToken, UserDetails userDetails) {
+        return isTokenValid(verify(jwtToken), userDetails);
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
     }
 }
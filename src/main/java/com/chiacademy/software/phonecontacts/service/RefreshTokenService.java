@@ -0,0 +1,84 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.exception.InvalidRefreshTokenException;
+import com.chiacademy.software.phonecontacts.repository.RefreshTokenRepository;
+import com.chiacademy.software.phonecontacts.repository.RefreshTokenRepository.ConsumedToken;
+import com.chiacademy.software.phonecontacts.repository.RefreshTokenRepository.UsedToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+
+    public static final String INVALID_REFRESH_TOKEN = "Refresh token is invalid, expired or revoked";
+    public static final String REUSED_REFRESH_TOKEN = "Refresh token was already used, the session is revoked";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenVersionService tokenVersionService;
+    private final Duration timeToLive;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TokenVersionService tokenVersionService,
+                               @Value("${jwtservice.refresh-token-ttl:30d}") Duration timeToLive) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenVersionService = tokenVersionService;
+        this.timeToLive = timeToLive;
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        refreshTokenRepository.deleteExpired(userId);
+        return issue(userId, UUID.randomUUID());
+    }
+
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        byte[] hash = hash(refreshToken);
+        ConsumedToken consumed = refreshTokenRepository.consume(hash).orElse(null);
+        if (consumed == null) {
+            UsedToken reused = refreshTokenRepository.findUsedToken(hash).orElse(null);
+            if (reused != null) {
+                tokenVersionService.revokeTokens(reused.userId(), reused.login());
+                throw new InvalidRefreshTokenException(REUSED_REFRESH_TOKEN, reused.familyId().toString());
+            }
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN, null);
+        }
+        return new Rotation(consumed.userId(), consumed.login(), issue(consumed.userId(), consumed.familyId()));
+    }
+
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findTokenFamily(hash(refreshToken)).ifPresent(refreshTokenRepository::revokeFamily);
+    }
+
+    private String issue(Long userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(hash(refreshToken), userId, familyId, Instant.now().plus(timeToLive));
+        return refreshToken;
+    }
+
+    private static byte[] hash(String refreshToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(Long userId, String login, String refreshToken) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.repository.RefreshTokenRepository;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import com.chiacademy.software.phonecontacts.security.UserPrincipal;
+import com.chiacademy.software.phonecontacts.utils.Caches;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AsyncLoadingCache<Long, Integer> currentVersions;
+
+    public TokenVersionService(UserRepository userRepository,
+                               UserDetailsCache userDetailsCache,
+                               RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwtservice.token-version-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${jwtservice.token-version-cache.refresh-after-write:30s}") Duration refreshAfterWrite,
+                               @Value("${jwtservice.token-version-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
+                .buildAsync(this::findTokenVersion);
+    }
+
+    public boolean isCurrent(UserPrincipal principal) {
+        return isCurrent(principal.getId(), principal.getTokenVersion());
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = Caches.get(currentVersions, userId, this::findTokenVersion);
+        return current != null && tokenVersion >= current;
+    }
+
+    private Integer findTokenVersion(Long userId) {
+        return userRepository.findTokenVersionById(userId).orElse(null);
+    }
+
+    @Transactional
+    public void revokeTokens(Long userId, String login) {
+        userRepository.incrementTokenVersion(userId);
+        refreshTokenRepository.revokeByUserId(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                currentVersions.synchronous().invalidate(userId);
+                userDetailsCache.invalidate(login);
+            }
+        });
+    }
+}
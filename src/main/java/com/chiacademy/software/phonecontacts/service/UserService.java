@@ -1,8 +1,10 @@
 package com.chiacademy.software.phonecontacts.service;
 
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactCursorPage;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.security.RefreshTokenRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -14,5 +16,15 @@ public interface UserService {
 
     AuthenticationResponse login(AuthenticationRequest request);
 
-    Page<Contact> getAllContactsByLogin(String login, Pageable pageable, Principal principal);
+    AuthenticationResponse refresh(RefreshTokenRequest request);
+
+    void logout(RefreshTokenRequest request);
+
+    String getContactsVersion(String login, Principal principal);
+
+    Page<ContactDto> getAllContactsByLogin(String login, Pageable pageable, Principal principal);
+
+    ContactCursorPage getContactsByCursor(String login, String cursor, int size, Principal principal);
+
+    Long getOwnerId(String login, Principal principal);
 }
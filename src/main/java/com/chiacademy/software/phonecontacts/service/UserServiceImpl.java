@@ -1,26 +1,35 @@
 package com.chiacademy.software.phonecontacts.service;
 
+import com.chiacademy.software.phonecontacts.exception.NotFoundException;
 import com.chiacademy.software.phonecontacts.exception.UserAlreadyExistsException;
-import com.chiacademy.software.phonecontacts.model.Contact;
 import com.chiacademy.software.phonecontacts.model.Role;
 import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactCursorPage;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactView;
 import com.chiacademy.software.phonecontacts.repository.ContactRepository;
 import com.chiacademy.software.phonecontacts.repository.UserRepository;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.security.RefreshTokenRequest;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import com.chiacademy.software.phonecontacts.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
+import java.util.List;
 
 @Service
+@Timed("contacts.service")
 @Transactional
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -30,6 +39,8 @@ public class UserServiceImpl implements UserService {
     private final JwtService jwtService;
     private final PasswordEncoder encoder;
     private final AuthenticationManager authenticationManager;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public AuthenticationResponse register(AuthenticationRequest request) {
@@ -42,37 +53,111 @@ public class UserServiceImpl implements UserService {
                 .password(encoder.encode(request.getPassword()))
                 .role(Role.USER)
                 .build();
-        userRepository.save(user);
-        String jwtToken = jwtService.generateToken(user);
+        userRepository.saveAndFlush(user);
+        userDetailsCache.invalidate(userLogin);
+        String jwtToken = jwtService.generateToken(UserPrincipal.from(user));
         return AuthenticationResponse.builder()
                 .token(jwtToken)
+                .refreshToken(refreshTokenService.issue(user.getId()))
                 .build();
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponse login(AuthenticationRequest request) {
         authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                 request.getLogin(),
                 request.getPassword())
         );
-        User user = userRepository.findByLogin(request.getLogin()).orElseThrow(
-                () -> new UsernameNotFoundException("No user with such login name"));
+        UserPrincipal user = userDetailsCache.loadUserByLogin(request.getLogin());
+        upgradePassword(user, request.getPassword());
         String jwtToken = jwtService.generateToken(user);
         return AuthenticationResponse.builder()
                 .token(jwtToken)
+                .refreshToken(refreshTokenService.issue(user.getId()))
                 .build();
     }
 
     @Override
-    public Page<Contact> getAllContactsByLogin(String login, Pageable pageable, Principal principal) {
-        if (login.equalsIgnoreCase(principal.getName())) {
-            User user = userRepository.findByLogin(login)
-                    .orElseThrow(() -> new UsernameNotFoundException("No user found"));
-            return contactRepository.findAllByUser(user, pageable);
-        } else {
-            throw new SecurityException("Access is not allowed");
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        UserPrincipal user = userDetailsCache.loadUserByLogin(rotation.login());
+        String jwtToken = jwtService.generateToken(user);
+        return AuthenticationResponse.builder()
+                .token(jwtToken)
+                .refreshToken(rotation.refreshToken())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getContactsVersion(String login, Principal principal) {
+        UserPrincipal owner = getOwner(login, principal);
+        Long version = userRepository.findContactsVersionById(owner.getId())
+                .orElseThrow(() -> new NotFoundException("The user is not found", login));
+        return owner.getId() + "-" + version;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ContactDto> getAllContactsByLogin(String login, Pageable pageable, Principal principal) {
+        UserPrincipal owner = getOwner(login, principal);
+        return contactRepository.findAllViewsByUserId(owner.getId(), pageable)
+                .map(this::toContactDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContactCursorPage getContactsByCursor(String login, String cursor, int size, Principal principal) {
+        UserPrincipal owner = getOwner(login, principal);
+        ContactCursor after = ContactCursor.decode(cursor);
+        List<ContactView> views = contactRepository
+                .findViewsByUserIdAfter(owner.getId(), after.getName(), after.getId(), size + 1);
+        boolean hasNext = views.size() > size;
+        List<ContactView> content = hasNext ? views.subList(0, size) : views;
+        String nextCursor = null;
+        if (hasNext) {
+            ContactView last = content.get(content.size() - 1);
+            nextCursor = new ContactCursor(last.getName(), last.getId()).encode();
         }
+        return ContactCursorPage.builder()
+                .content(content.stream().map(this::toContactDto).toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Long getOwnerId(String login, Principal principal) {
+        return getOwner(login, principal).getId();
+    }
 
+    private void upgradePassword(UserPrincipal user, String rawPassword) {
+        if (encoder.upgradeEncoding(user.getPassword())) {
+            userRepository.updatePassword(user.getId(), user.getPassword(), encoder.encode(rawPassword));
+            userDetailsCache.invalidate(user.getLogin());
+        }
+    }
+
+    private UserPrincipal getOwner(String login, Principal principal) {
+        if (!login.equalsIgnoreCase(principal.getName())) {
+            throw new SecurityException("Access is not allowed");
+        }
+        return userDetailsCache.loadUserByLogin(principal.getName());
+    }
+
+    private ContactDto toContactDto(ContactView view) {
+        return ContactDto.builder()
+                .name(view.getName())
+                .emails(view.getEmails())
+                .phones(view.getPhones())
+                .build();
+    }
 }
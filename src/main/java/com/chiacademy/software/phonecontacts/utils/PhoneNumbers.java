@@ -0,0 +1,41 @@
+package com.chiacademy.software.phonecontacts.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class PhoneNumbers {
+
+    public static final String PHONE_REGEX = "\\+[1-9][0-9]{2}\\s?[0-9]{2}\\s?[0-9]{3}\\s?[0-9]{4}";
+    public static final String INVALID_PHONE = "Invalid phone number. " +
+            "Valid format is +380 93 123 4567 or without spaces +380931234567";
+    public static final int KEY_DIGITS = 12;
+
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+
+    private PhoneNumbers() {
+    }
+
+    public static String normalize(String phone) {
+        return "+" + digits(phone);
+    }
+
+    public static String digits(String value) {
+        return NON_DIGITS.matcher(value).replaceAll("");
+    }
+
+    public static Set<String> normalize(Set<String> phones) {
+        if (phones == null) {
+            return null;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String phone : phones) {
+            normalized.add(normalize(phone));
+        }
+        return normalized;
+    }
+
+    public static long toKey(String phone) {
+        return Long.parseLong(normalize(phone).substring(1));
+    }
+}
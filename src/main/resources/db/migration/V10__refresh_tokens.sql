@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS contacts_db.refresh_tokens
+(
+    id         bigserial PRIMARY KEY,
+    token_hash bytea                    NOT NULL,
+    user_id    bigint                   NOT NULL,
+    family_id  uuid                     NOT NULL,
+    expires_at timestamp with time zone NOT NULL,
+    created_at timestamp with time zone NOT NULL DEFAULT now(),
+    used_at    timestamp with time zone,
+    revoked_at timestamp with time zone,
+    CONSTRAINT uq_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user
+        FOREIGN KEY (user_id)
+            REFERENCES contacts_db.users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_family_id
+    ON contacts_db.refresh_tokens (family_id);
+
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_user_id
+    ON contacts_db.refresh_tokens (user_id);
@@ -0,0 +1,2 @@
+ALTER TABLE contacts_db.users
+    ADD COLUMN IF NOT EXISTS contacts_version bigint NOT NULL DEFAULT 0;
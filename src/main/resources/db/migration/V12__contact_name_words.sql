@@ -0,0 +1,58 @@
+CREATE TABLE IF NOT EXISTS contacts_db.contact_name_words
+(
+    user_id     bigint  NOT NULL,
+    word        varchar NOT NULL,
+    occurrences integer NOT NULL,
+    CONSTRAINT pk_contact_name_words PRIMARY KEY (user_id, word),
+    CONSTRAINT fk_contact_name_words_user
+        FOREIGN KEY (user_id)
+            REFERENCES contacts_db.users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_contact_name_words_user_id_word_trgm
+    ON contacts_db.contact_name_words USING gist (user_id, word public.gist_trgm_ops);
+
+CREATE OR REPLACE FUNCTION contacts_db.count_contact_name_words() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        WITH removed AS (
+            SELECT c.user_id, t.word, count(*) AS occurrences
+            FROM old_contacts c, regexp_split_to_table(lower(c.name), '[^[:alpha:]]+') t(word)
+            WHERE t.word <> ''
+            GROUP BY c.user_id, t.word),
+        emptied AS (
+            DELETE FROM contacts_db.contact_name_words w USING removed r
+            WHERE w.user_id = r.user_id AND w.word = r.word AND w.occurrences <= r.occurrences)
+        UPDATE contacts_db.contact_name_words w SET occurrences = w.occurrences - r.occurrences
+        FROM removed r
+        WHERE w.user_id = r.user_id AND w.word = r.word AND w.occurrences > r.occurrences;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO contacts_db.contact_name_words AS w (user_id, word, occurrences)
+        SELECT c.user_id, t.word, count(*)
+        FROM new_contacts c, regexp_split_to_table(lower(c.name), '[^[:alpha:]]+') t(word)
+        WHERE t.word <> ''
+        GROUP BY c.user_id, t.word
+        ORDER BY c.user_id, t.word
+        ON CONFLICT (user_id, word) DO UPDATE SET occurrences = w.occurrences + EXCLUDED.occurrences;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contacts_name_words_insert AFTER INSERT ON contacts_db.contacts
+    REFERENCING NEW TABLE AS new_contacts
+    FOR EACH STATEMENT EXECUTE FUNCTION contacts_db.count_contact_name_words();
+CREATE TRIGGER trg_contacts_name_words_update AFTER UPDATE ON contacts_db.contacts
+    REFERENCING OLD TABLE AS old_contacts NEW TABLE AS new_contacts
+    FOR EACH STATEMENT EXECUTE FUNCTION contacts_db.count_contact_name_words();
+CREATE TRIGGER trg_contacts_name_words_delete AFTER DELETE ON contacts_db.contacts
+    REFERENCING OLD TABLE AS old_contacts
+    FOR EACH STATEMENT EXECUTE FUNCTION contacts_db.count_contact_name_words();
+
+INSERT INTO contacts_db.contact_name_words (user_id, word, occurrences)
+SELECT c.user_id, t.word, count(*)
+FROM contacts_db.contacts c, regexp_split_to_table(lower(c.name), '[^[:alpha:]]+') t(word)
+WHERE t.word <> ''
+GROUP BY c.user_id, t.word
+ON CONFLICT (user_id, word) DO NOTHING;
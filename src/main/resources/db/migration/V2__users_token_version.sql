@@ -0,0 +1,2 @@
+ALTER TABLE contacts_db.users
+    ADD COLUMN IF NOT EXISTS token_version integer NOT NULL DEFAULT 0;
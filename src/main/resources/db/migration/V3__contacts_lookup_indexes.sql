@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS idx_contacts_user_id
+    ON contacts_db.contacts (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_contact_emails_contact_id
+    ON contacts_db.contact_emails (contact_id);
+
+CREATE INDEX IF NOT EXISTS idx_contact_phone_numbers_contact_id
+    ON contacts_db.contact_phone_numbers (contact_id);
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_contacts_user_id_name_id
+    ON contacts_db.contacts (user_id, name, id);
+
+DROP INDEX IF EXISTS contacts_db.idx_contacts_user_id;
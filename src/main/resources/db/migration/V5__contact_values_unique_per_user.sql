@@ -0,0 +1,46 @@
+ALTER TABLE contacts_db.contact_emails ADD COLUMN IF NOT EXISTS user_id bigint;
+ALTER TABLE contacts_db.contact_phone_numbers ADD COLUMN IF NOT EXISTS user_id bigint;
+
+UPDATE contacts_db.contact_emails e SET user_id = c.user_id
+FROM contacts_db.contacts c WHERE c.id = e.contact_id;
+UPDATE contacts_db.contact_phone_numbers p SET user_id = c.user_id
+FROM contacts_db.contacts c WHERE c.id = p.contact_id;
+
+DO $$
+DECLARE
+    email_conflicts text;
+    phone_conflicts text;
+BEGIN
+    SELECT string_agg(format('(%s, %s)', user_id, email), ', ' ORDER BY user_id, email) INTO email_conflicts
+    FROM (SELECT user_id, email FROM contacts_db.contact_emails
+          GROUP BY user_id, email HAVING count(*) > 1 ORDER BY user_id, email LIMIT 100) d;
+    SELECT string_agg(format('(%s, %s)', user_id, phone_number), ', ' ORDER BY user_id, phone_number) INTO phone_conflicts
+    FROM (SELECT user_id, phone_number FROM contacts_db.contact_phone_numbers
+          GROUP BY user_id, phone_number HAVING count(*) > 1 ORDER BY user_id, phone_number LIMIT 100) d;
+    IF email_conflicts IS NOT NULL OR phone_conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Contact values are not unique per user'
+            USING DETAIL = format('Duplicate (user_id, email): %s. Duplicate (user_id, phone_number): %s.',
+                                  coalesce(email_conflicts, 'none'), coalesce(phone_conflicts, 'none')),
+                  HINT = 'Merge or remove the duplicated contact values, then run the migration again.';
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION contacts_db.set_contact_value_user_id() RETURNS trigger AS $$
+BEGIN
+    IF NEW.user_id IS NULL THEN
+        SELECT c.user_id INTO NEW.user_id FROM contacts_db.contacts c WHERE c.id = NEW.contact_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contact_emails_user_id BEFORE INSERT ON contacts_db.contact_emails
+    FOR EACH ROW EXECUTE FUNCTION contacts_db.set_contact_value_user_id();
+CREATE TRIGGER trg_contact_phone_numbers_user_id BEFORE INSERT ON contacts_db.contact_phone_numbers
+    FOR EACH ROW EXECUTE FUNCTION contacts_db.set_contact_value_user_id();
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_contact_emails_user_email
+    ON contacts_db.contact_emails (user_id, email);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_contact_phone_numbers_user_phone
+    ON contacts_db.contact_phone_numbers (user_id, phone_number);
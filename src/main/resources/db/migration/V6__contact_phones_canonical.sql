@@ -0,0 +1,36 @@
+DO $$
+DECLARE
+    collisions text;
+    invalid text;
+BEGIN
+    SELECT string_agg(format('(%s, %s)', user_id, phone), ', ' ORDER BY user_id, phone) INTO collisions
+    FROM (SELECT user_id, '+' || regexp_replace(phone_number, '[^0-9]', '', 'g') AS phone
+          FROM contacts_db.contact_phone_numbers
+          GROUP BY 1, 2 HAVING count(*) > 1 ORDER BY 1, 2 LIMIT 100) d;
+    SELECT string_agg(format('(%s, %s)', user_id, phone_number), ', ' ORDER BY user_id, phone_number) INTO invalid
+    FROM (SELECT user_id, phone_number FROM contacts_db.contact_phone_numbers
+          WHERE '+' || regexp_replace(phone_number, '[^0-9]', '', 'g') !~ '^\+[1-9][0-9]{1,14}$'
+          ORDER BY user_id, phone_number LIMIT 100) d;
+    IF collisions IS NOT NULL OR invalid IS NOT NULL THEN
+        RAISE EXCEPTION 'Contact phone numbers can not be normalized to E.164'
+            USING DETAIL = format('Duplicate (user_id, phone_number) after normalization: %s. '
+                                      'Not E.164 after normalization (user_id, phone_number): %s.',
+                                  coalesce(collisions, 'none'), coalesce(invalid, 'none')),
+                  HINT = 'Merge or fix the listed phone numbers, then run the migration again.';
+    END IF;
+END;
+$$;
+
+UPDATE contacts_db.contact_phone_numbers
+SET phone_number = '+' || regexp_replace(phone_number, '[^0-9]', '', 'g')
+WHERE phone_number !~ '^\+[0-9]+$';
+
+ALTER TABLE contacts_db.contact_phone_numbers
+    ADD CONSTRAINT chk_contact_phone_numbers_e164 CHECK (phone_number ~ '^\+[1-9][0-9]{1,14}$');
+
+ALTER TABLE contacts_db.contact_phone_numbers
+    ADD COLUMN phone_key bigint GENERATED ALWAYS AS (CAST(substr(phone_number, 2) AS bigint)) STORED;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_contact_phone_numbers_user_phone_key
+    ON contacts_db.contact_phone_numbers (user_id, phone_key);
+DROP INDEX IF EXISTS contacts_db.uq_contact_phone_numbers_user_phone;
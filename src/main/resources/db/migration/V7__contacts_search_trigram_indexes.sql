@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS btree_gist WITH SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS btree_gin WITH SCHEMA public;
+
+CREATE INDEX IF NOT EXISTS idx_contacts_user_id_name_trgm
+    ON contacts_db.contacts USING gist (user_id, lower(name) public.gist_trgm_ops(siglen = 256));
+CREATE INDEX IF NOT EXISTS idx_contact_emails_user_id_email_trgm
+    ON contacts_db.contact_emails USING gist (user_id, lower(email) public.gist_trgm_ops(siglen = 256));
+CREATE INDEX IF NOT EXISTS idx_contact_phone_numbers_user_id_phone_key_trgm
+    ON contacts_db.contact_phone_numbers USING gin (user_id, CAST(phone_key AS text) public.gin_trgm_ops);
@@ -0,0 +1,11 @@
+ALTER TABLE contacts_db.contact_phone_numbers
+    DROP CONSTRAINT IF EXISTS fk_phones,
+    ADD CONSTRAINT fk_phones
+        FOREIGN KEY (contact_id)
+            REFERENCES contacts_db.contacts (id) ON DELETE CASCADE;
+
+ALTER TABLE contacts_db.contact_emails
+    DROP CONSTRAINT IF EXISTS fk_emails,
+    ADD CONSTRAINT fk_emails
+        FOREIGN KEY (contact_id)
+            REFERENCES contacts_db.contacts (id) ON DELETE CASCADE;
@@ -0,0 +1,2 @@
+ALTER SEQUENCE contacts_db.users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE contacts_db.contacts_id_seq INCREMENT BY 50;
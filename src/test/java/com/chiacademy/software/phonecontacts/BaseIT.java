@@ -1,5 +1,7 @@
 package com.chiacademy.software.phonecontacts;
 
+import com.chiacademy.software.phonecontacts.utils.SqlStatementCountingConfiguration;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -8,12 +10,15 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 @Testcontainers
 @ActiveProfiles("test-containers-flyway")
+@Import(SqlStatementCountingConfiguration.class)
 public class BaseIT {
 
+    public static final String POSTGRES_IMAGE = "postgres:15.4";
+
     public static final PostgreSQLContainer<?> container;
 
     static {
-        container = new PostgreSQLContainer<>("postgres:latest")
+        container = new PostgreSQLContainer<>(POSTGRES_IMAGE)
                 .withDatabaseName("prop")
                 .withUsername("test")
                 .withPassword("test")
@@ -0,0 +1,82 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.PhoneContactsApplication;
+import com.chiacademy.software.phonecontacts.model.Contact;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BenchmarkContext {
+
+    public static final String DATASOURCE_URL = "benchmark.datasource.url";
+    public static final String DATASOURCE_USERNAME = "benchmark.datasource.username";
+    public static final String DATASOURCE_PASSWORD = "benchmark.datasource.password";
+
+    private static final String FIRST_NAMES = "ARRAY['Olena','Taras','Iryna','Oleksii','Marina','Petro','Sofiia'," +
+            "'Andrii','Kateryna','Dmytro','Yuliia','Bohdan','Nataliia','Serhii','Oksana','Mykola','Viktoriia'," +
+            "'Roman','Tetiana','Yurii']";
+    private static final String LAST_NAMES = "ARRAY['Shevchenko','Kovalenko','Bondarenko','Tkachenko','Kravchenko'," +
+            "'Oliinyk','Shevchuk','Polishchuk','Boiko','Tkachuk','Savchenko','Rudenko','Marchenko','Lysenko'," +
+            "'Melnyk','Moroz','Pavlenko','Kozak','Svirska','Hnatiuk']";
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        String url = System.getProperty(DATASOURCE_URL);
+        String username = System.getProperty(DATASOURCE_USERNAME, "test");
+        String password = System.getProperty(DATASOURCE_PASSWORD, "test");
+        if (url == null) {
+            url = BaseIT.container.getJdbcUrl();
+            username = BaseIT.container.getUsername();
+            password = BaseIT.container.getPassword();
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + username,
+                "spring.datasource.password=" + password,
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(PhoneContactsApplication.class)
+                .profiles("test-containers-flyway")
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+
+    public static long createUser(JdbcTemplate jdbcTemplate, String login) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO contacts_db.users (login, password, role) VALUES (?, 'benchmark', 'USER') RETURNING id",
+                Long.class, login);
+    }
+
+    public static Long findUser(JdbcTemplate jdbcTemplate, String login) {
+        return jdbcTemplate.query("SELECT id FROM contacts_db.users WHERE login = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, login);
+    }
+
+    public static void seedContacts(JdbcTemplate jdbcTemplate, long userId, int count) {
+        jdbcTemplate.update("WITH blocks AS (SELECT b, nextval('contacts_db.contacts_id_seq') AS low " +
+                "FROM generate_series(0, (? - 1) / ?) b) " +
+                "INSERT INTO contacts_db.contacts (id, name, user_id) " +
+                "SELECT blocks.low + (g - 1) % ?, " +
+                "(" + FIRST_NAMES + ")[1 + g % 20] || ' ' || (" + LAST_NAMES + ")[1 + (g / 20) % 20] " +
+                "|| ' ' || lpad(g::text, 7, '0'), ? " +
+                "FROM generate_series(1, ?) g JOIN blocks ON blocks.b = (g - 1) / ?",
+                count, Contact.ID_ALLOCATION_SIZE, Contact.ID_ALLOCATION_SIZE, userId, count,
+                Contact.ID_ALLOCATION_SIZE);
+        jdbcTemplate.update("INSERT INTO contacts_db.contact_emails (contact_id, user_id, email) " +
+                "SELECT c.id, c.user_id, 'contact' || c.id || '.' || n || '@gmail.com' " +
+                "FROM contacts_db.contacts c, generate_series(1, 2) n WHERE c.user_id = ?", userId);
+        jdbcTemplate.update("INSERT INTO contacts_db.contact_phone_numbers (contact_id, user_id, phone_number) " +
+                "SELECT c.id, c.user_id, '+380' || lpad((c.id * 10 + n)::text, 9, '0') " +
+                "FROM contacts_db.contacts c, generate_series(1, 2) n WHERE c.user_id = ?", userId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,126 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.repository.ContactRepository;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.service.ContactService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ContactCreateBenchmark {
+
+    private static final int VALUES_PER_CONTACT = 5;
+    private static final int ROWS_PER_CONTACT = 1 + 2 * VALUES_PER_CONTACT;
+    private static final int CONTACTS_PER_TRANSACTION = 100;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ContactRepository contactRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long userId;
+    private Principal principal;
+    private long sequence;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        contactService = context.getBean(ContactService.class);
+        contactRepository = context.getBean(ContactRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        String login = "create" + System.nanoTime();
+        userId = BenchmarkContext.createUser(context.getBean(JdbcTemplate.class), login);
+        principal = () -> login;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private ContactDto nextContact() {
+        long number = ++sequence;
+        Set<String> emails = new LinkedHashSet<>();
+        Set<String> phones = new LinkedHashSet<>();
+        for (int i = 0; i < VALUES_PER_CONTACT; i++) {
+            emails.add("contact" + number + "." + i + "@bench.io");
+            phones.add("+3805" + String.format("%08d", number * VALUES_PER_CONTACT + i));
+        }
+        return ContactDto.builder().name("Contact " + number).emails(emails).phones(phones).build();
+    }
+
+    @Benchmark
+    public ContactDto createContact(Rows rows) {
+        ContactDto contact = contactService.create(nextContact(), principal);
+        rows.rows += ROWS_PER_CONTACT;
+        return contact;
+    }
+
+    @Benchmark
+    public List<Contact> saveContacts(Rows rows) {
+        List<Contact> saved = transactionTemplate.execute(status -> {
+            User user = context.getBean(UserRepository.class).getReferenceById(userId);
+            List<Contact> contacts = new ArrayList<>(CONTACTS_PER_TRANSACTION);
+            for (int i = 0; i < CONTACTS_PER_TRANSACTION; i++) {
+                ContactDto contact = nextContact();
+                contacts.add(Contact.builder()
+                        .name(contact.getName())
+                        .emails(contact.getEmails())
+                        .phones(contact.getPhones())
+                        .user(user).build());
+            }
+            return contactRepository.saveAll(contacts);
+        });
+        rows.rows += (long) ROWS_PER_CONTACT * CONTACTS_PER_TRANSACTION;
+        return saved;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContactCreateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactSearchBenchmark {
+
+    private static final String LOGIN = "search-1m";
+    private static final int CONTACTS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final double P99_TARGET_MILLIS = 100.0;
+
+    @Param({"kovalenko", "Kovalenko 0004", "kovalenco", "contact4242", "380 0004 24"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private Principal principal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        contactService = context.getBean(ContactService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (BenchmarkContext.findUser(jdbcTemplate, LOGIN) == null) {
+            long userId = BenchmarkContext.createUser(jdbcTemplate, LOGIN);
+            BenchmarkContext.seedContacts(jdbcTemplate, userId, CONTACTS);
+        }
+        principal = () -> LOGIN;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContactDto> search() {
+        return contactService.search(query, LIMIT, principal);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ContactSearchBenchmark.class.getSimpleName())
+                .build()).run();
+        List<String> misses = new ArrayList<>();
+        for (RunResult result : results) {
+            String query = result.getParams().getParam("query");
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            if (p99 > P99_TARGET_MILLIS) {
+                misses.add(String.format("'%s': p99 %.1f ms > %.1f ms", query, p99, P99_TARGET_MILLIS));
+            }
+        }
+        if (!misses.isEmpty()) {
+            throw new IllegalStateException("Search latency targets missed: " + misses);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactValidationBenchmark {
+
+    private static final Pattern PHONE = Pattern.compile(PhoneNumbers.PHONE_REGEX);
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ContactDto validContact;
+    private ContactDto invalidContact;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validContact = ContactDto.builder()
+                .name("Olena Kovalenko")
+                .emails(Set.of("olena@gmail.com", "olena.kovalenko@ukr.net"))
+                .phones(Set.of("+380 93 123 4567", "+380671234567"))
+                .build();
+        invalidContact = ContactDto.builder()
+                .name("Ol")
+                .emails(Set.of("olena.gmail.com", "olena.kovalenko@ukr.net"))
+                .phones(Set.of("+380 93 123 45", "0671234567"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ContactDto>> validate_ValidContact() {
+        return validator.validate(validContact);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ContactDto>> validate_InvalidContact() {
+        return validator.validate(invalidContact);
+    }
+
+    @Benchmark
+    public boolean phonePattern_Match() {
+        return PHONE.matcher("+380 93 123 4567").matches();
+    }
+
+    @Benchmark
+    public boolean phonePattern_Mismatch() {
+        return PHONE.matcher("+380 93 123 45").matches();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContactValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactsPageBenchmark {
+
+    private static final int CONTACTS_PER_USER = 10_000;
+    private static final int PAGES = 10;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private String login;
+    private long userId;
+    private Principal principal;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userService = context.getBean(UserService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        login = "page" + System.nanoTime();
+        userId = BenchmarkContext.createUser(jdbcTemplate, login);
+        BenchmarkContext.seedContacts(jdbcTemplate, userId, CONTACTS_PER_USER);
+        principal = () -> login;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int nextPage() {
+        page = (page + 1) % PAGES;
+        return page;
+    }
+
+    @Benchmark
+    public Page<ContactDto> contactsPage_Aggregated() {
+        return userService.getAllContactsByLogin(login, PageRequest.of(nextPage(), pageSize), principal);
+    }
+
+    @Benchmark
+    public List<Contact> contactsPage_LazyCollections() {
+        int offset = nextPage() * pageSize;
+        return transactionTemplate.execute(status -> {
+            entityManager.createQuery("SELECT count(c) FROM Contact c WHERE c.user.id = :userId", Long.class)
+                    .setParameter("userId", userId)
+                    .getSingleResult();
+            List<Contact> contacts = entityManager
+                    .createQuery("SELECT c FROM Contact c WHERE c.user.id = :userId", Contact.class)
+                    .setParameter("userId", userId)
+                    .setFirstResult(offset)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            contacts.forEach(contact -> {
+                contact.getEmails().size();
+                contact.getPhones().size();
+            });
+            return contacts;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContactsPageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
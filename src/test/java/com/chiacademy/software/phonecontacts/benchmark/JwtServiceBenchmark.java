@@ -0,0 +1,106 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.security.VerifiedToken;
+import com.chiacademy.software.phonecontacts.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "CPNgqlMLES2DGivLeCJRW0jF6MSKVHXfl2IrZW4C4PCPGMCb5s";
+
+    private JwtService jwtService;
+    private User user;
+    private String jwt;
+    private VerifiedToken verifiedToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, false, Duration.ofMinutes(24));
+        user = User.builder()
+                .id(1L)
+                .login("Oleksii")
+                .password("pass123")
+                .role(Role.USER)
+                .build();
+        jwt = jwtService.generateToken(user);
+        verifiedToken = jwtService.verify(jwt);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken parseToken() {
+        return jwtService.verify(jwt);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.isTokenValid(verifiedToken, user);
+    }
+
+    @Benchmark
+    public boolean filterPath_ParsePerCall() {
+        String login = legacyExtractClaim(jwt, Claims::getSubject);
+        return login != null
+                && legacyExtractClaim(jwt, Claims::getSubject).equals(user.getUsername())
+                && !legacyExtractClaim(jwt, Claims::getExpiration).before(new Date());
+    }
+
+    @Benchmark
+    public boolean filterPath_VerifiedToken() {
+        VerifiedToken token = jwtService.verify(jwt);
+        return token.getSubject() != null && jwtService.isTokenValid(token, user);
+    }
+
+    private static <T> T legacyExtractClaim(String jwtToken, Function<Claims, T> claimsResolver) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(legacySigningKey())
+                .build()
+                .parseClaimsJws(jwtToken)
+                .getBody();
+        return claimsResolver.apply(claims);
+    }
+
+    private static Key legacySigningKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,279 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
+import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoadTestHarness {
+
+    public static final String USERS = "loadtest.users";
+    public static final String CONTACTS = "loadtest.contacts";
+    public static final String DURATION = "loadtest.duration";
+    public static final String WARMUP = "loadtest.warmup";
+
+    private static final String PASSWORD = "loadtest123";
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.currentTimeMillis() % 1_000_000);
+
+    enum Endpoint {
+        CONTACTS_PAGE(45),
+        CREATE(20),
+        EDIT(10),
+        DELETE(10),
+        AUTH(10),
+        REGISTER(5);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Endpoint pick(int roll) {
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return CONTACTS_PAGE;
+        }
+    }
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean running;
+
+    private LoadTestHarness(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        reset();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger(USERS, 32);
+        int contacts = Integer.getInteger(CONTACTS, 1000);
+        Duration duration = Duration.ofSeconds(Integer.getInteger(DURATION, 60));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger(WARMUP, 10));
+
+        try (ConfigurableApplicationContext context = BenchmarkContext.start()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestHarness harness = new LoadTestHarness("http://localhost:" + port + "/api/v1",
+                    context.getBean(ObjectMapper.class));
+            List<Session> sessions = seed(context, users, contacts);
+
+            harness.run(sessions, warmup);
+            harness.reset();
+            double seconds = harness.run(sessions, duration);
+            harness.report(users, seconds);
+        }
+    }
+
+    private static List<Session> seed(ConfigurableApplicationContext context, int users, int contacts) throws Exception {
+        UserService userService = context.getBean(UserService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Session> sessions = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String login = nextLogin();
+            String token = userService.register(new AuthenticationRequest(login, PASSWORD)).getToken();
+            long userId = BenchmarkContext.findUser(jdbcTemplate, login);
+            BenchmarkContext.seedContacts(jdbcTemplate, userId, contacts);
+            sessions.add(new Session(i, login, token, contacts));
+        }
+        return sessions;
+    }
+
+    private static String nextLogin() {
+        return "lt" + Long.toString(SEQUENCE.incrementAndGet(), 36) + Long.toString(System.nanoTime() % 1_000_000, 36);
+    }
+
+    private void reset() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    private double run(List<Session> sessions, Duration duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(sessions.size());
+        running = true;
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (Session session : sessions) {
+                workers.add(executor.submit(() -> drive(session)));
+            }
+            Thread.sleep(duration.toMillis());
+            running = false;
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void drive(Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Endpoint endpoint = Endpoint.pick(random.nextInt(100));
+            if ((endpoint == Endpoint.EDIT || endpoint == Endpoint.DELETE) && session.created.isEmpty()) {
+                endpoint = Endpoint.CREATE;
+            }
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call(endpoint, session, random);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            latencies.get(endpoint).recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+            if (!ok) {
+                errors.get(endpoint).increment();
+            }
+        }
+    }
+
+    private boolean call(Endpoint endpoint, Session session, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        return switch (endpoint) {
+            case CONTACTS_PAGE -> send(authorized(session, "/users/" + session.login + "/contacts?size=20&page="
+                    + random.nextInt(Math.max(1, session.contacts / 20))).GET()) == 200;
+            case CREATE -> {
+                ContactDto contact = session.nextContact();
+                boolean created = send(authorized(session, "/contacts/create").POST(json(contact))) == 201;
+                if (created) {
+                    session.created.addLast(contact.getName());
+                }
+                yield created;
+            }
+            case EDIT -> {
+                String name = session.created.peekFirst();
+                ContactDto contact = session.nextContact();
+                contact.setName(name);
+                yield send(authorized(session, "/contacts/" + encode(name) + "/edit").PUT(json(contact))) == 200;
+            }
+            case DELETE -> send(authorized(session, "/contacts/delete?contact=" + encode(session.created.pollFirst()))
+                    .DELETE()) == 200;
+            case AUTH -> {
+                HttpResponse<byte[]> response = client.send(request("/users/auth")
+                        .POST(json(new AuthenticationRequest(session.login, PASSWORD))).build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    session.token = objectMapper.readValue(response.body(), AuthenticationResponse.class).getToken();
+                }
+                yield response.statusCode() == 200;
+            }
+            case REGISTER -> send(request("/users/register")
+                    .POST(json(new AuthenticationRequest(nextLogin(), PASSWORD)))) == 201;
+        };
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return request(path).header("Authorization", "Bearer " + session.token);
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private void report(int users, double seconds) {
+        System.out.printf("%n%d concurrent users, %.1f s%n", users, seconds);
+        System.out.printf("%-14s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            total += histogram.getTotalCount();
+            System.out.printf("%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.name().toLowerCase(), histogram.getTotalCount(), errors.get(endpoint).sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+        }
+        System.out.printf("%-14s %9d %7s %10.1f%n", "total", total, "", total / seconds);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Session {
+
+        private final int index;
+        private final String login;
+        private final int contacts;
+        private final Deque<String> created = new ArrayDeque<>();
+        private volatile String token;
+        private long sequence;
+
+        private Session(int index, String login, String token, int contacts) {
+            this.index = index;
+            this.login = login;
+            this.token = token;
+            this.contacts = contacts;
+        }
+
+        private ContactDto nextContact() {
+            long number = ++sequence;
+            return ContactDto.builder()
+                    .name("Load " + index + "-" + number)
+                    .emails(Set.of("load" + index + "." + number + "@bench.io"))
+                    .phones(Set.of(String.format("+389%09d", number * 100 + index % 100)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Contact> contacts;
+    private Page<ContactDto> contactDtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Contact> content = new ArrayList<>(pageSize);
+        List<ContactDto> dtoContent = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Set<String> emails = new LinkedHashSet<>(List.of("contact" + i + ".1@gmail.com", "contact" + i + ".2@gmail.com"));
+            Set<String> phones = new LinkedHashSet<>(List.of(
+                    String.format("+380 93 %03d %04d", i, i), String.format("+380 67 %03d %04d", i, i)));
+            String name = "Contact " + String.format("%05d", i);
+            content.add(Contact.builder().id((long) i).name(name).emails(emails).phones(phones).build());
+            dtoContent.add(ContactDto.builder().name(name).emails(emails).phones(phones).build());
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        contacts = new PageImpl<>(content, pageable, 10_000);
+        contactDtos = new PageImpl<>(dtoContent, pageable, 10_000);
+    }
+
+    @Benchmark
+    public byte[] serialize_ContactPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contacts);
+    }
+
+    @Benchmark
+    public byte[] serialize_ContactDtoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contactDtos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserEqualityBenchmark {
+
+    private static final int USERS = 1000;
+
+    private User user;
+    private User sameUser;
+    private User otherUser;
+    private Set<User> users;
+
+    @Setup
+    public void setUp() {
+        user = user(42);
+        sameUser = user(42);
+        otherUser = user(43);
+        users = new HashSet<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(user(i));
+        }
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .login("user" + id)
+                .password("{bcrypt}$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW" + id)
+                .role(Role.USER)
+                .build();
+    }
+
+    @Benchmark
+    public int hashCode_User() {
+        return user.hashCode();
+    }
+
+    @Benchmark
+    public boolean equals_SameUser() {
+        return user.equals(sameUser);
+    }
+
+    @Benchmark
+    public boolean equals_OtherUser() {
+        return user.equals(otherUser);
+    }
+
+    @Benchmark
+    public boolean hashSet_Contains() {
+        return users.contains(sameUser);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserEqualityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
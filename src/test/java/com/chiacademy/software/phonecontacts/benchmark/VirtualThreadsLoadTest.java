@@ -0,0 +1,109 @@
+package com.chiacademy.software.phonecontacts.benchmark;
+
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.service.JwtService;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class VirtualThreadsLoadTest {
+
+    public static final String CONNECTIONS = "loadtest.connections";
+    public static final String DURATION = "loadtest.duration";
+    public static final String WARMUP = "loadtest.warmup";
+    public static final String CONTACTS = "loadtest.contacts";
+
+    private VirtualThreadsLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger(CONNECTIONS, 2000);
+        Duration duration = Duration.ofSeconds(Integer.getInteger(DURATION, 30));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger(WARMUP, 10));
+        int contacts = Integer.getInteger(CONTACTS, 100);
+        boolean virtualThreads = Runtime.version().feature() >= 21;
+
+        Result platform = run(false, connections, warmup, duration, contacts);
+        System.out.println(platform);
+        if (virtualThreads) {
+            Result virtual = run(true, connections, warmup, duration, contacts);
+            System.out.println(virtual);
+            System.out.printf("virtual/platform throughput: %.2fx%n", virtual.throughput() / platform.throughput());
+        } else {
+            System.out.println("virtual threads skipped: running on Java " + Runtime.version().feature());
+        }
+    }
+
+    private static Result run(boolean virtualThreads, int connections, Duration warmup, Duration duration,
+                              int contacts) throws InterruptedException {
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(
+                "contacts.virtual-threads.enabled=" + virtualThreads)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            String login = "load" + System.nanoTime();
+            long userId = BenchmarkContext.createUser(jdbcTemplate, login);
+            BenchmarkContext.seedContacts(jdbcTemplate, userId, contacts);
+            String token = context.getBean(JwtService.class)
+                    .generateToken(context.getBean(UserRepository.class).findById(userId).orElseThrow());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/v1/users/" + login + "/contacts"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .GET().build();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            drive(client, request, connections, warmup);
+            Result result = drive(client, request, connections, duration);
+            return new Result(virtualThreads ? "virtual" : "platform", connections, result.requests(),
+                    result.errors(), result.seconds());
+        }
+    }
+
+    private static Result drive(HttpClient client, HttpRequest request, int connections, Duration duration)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(connections);
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(end - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                break;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    errors.increment();
+                } else {
+                    requests.increment();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(connections);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(null, connections, requests.sum(), errors.sum(), seconds);
+    }
+
+    private record Result(String mode, int connections, long requests, long errors, double seconds) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s threads, %d connections: %.0f req/s (%d ok, %d errors in %.1f s)",
+                    mode, connections, throughput(), requests, errors, seconds);
+        }
+    }
+}
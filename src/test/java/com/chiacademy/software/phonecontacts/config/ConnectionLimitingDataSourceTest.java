@@ -0,0 +1,83 @@
+package com.chiacademy.software.phonecontacts.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+    private DataSource target;
+    private Connection connection;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConnectionLimitingDataSource(target, 1, TIMEOUT);
+    }
+
+    @Test
+    public void getConnection_WhenLimitReached_WaitsForClose_Test() throws Exception {
+        Connection first = dataSource.getConnection();
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(TIMEOUT.toMillis() / 4);
+        assertFalse(second.isDone());
+
+        first.close();
+
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    public void getConnection_WhenWaitTimesOut_Throws_Test() throws Exception {
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    public void close_WhenCalledTwice_ReleasesOnePermit_Test() throws Exception {
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void getConnection_WhenTargetFails_ReleasesPermit_Test() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
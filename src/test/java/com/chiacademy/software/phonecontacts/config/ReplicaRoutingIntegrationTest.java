@@ -0,0 +1,240 @@
+package com.chiacademy.software.phonecontacts.config;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.OK;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ActiveProfiles("test-containers-flyway")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReplicaRoutingIntegrationTest {
+
+    private static final String ALLOW_REPLICATION = "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"";
+    private static final String START_STANDBY = "pg_basebackup -d 'host=primary user=test password=test' " +
+            "-D /tmp/replica -R -X stream && chown -R postgres:postgres /tmp/replica && chmod 700 /tmp/replica " +
+            "&& exec gosu postgres postgres -D /tmp/replica -c hot_standby=on";
+    private static final Duration READ_YOUR_WRITES = Duration.ofSeconds(2);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    public static final PostgreSQLContainer<?> primary;
+    public static final GenericContainer<?> replica;
+
+    static {
+        Network network = Network.newNetwork();
+        primary = new PostgreSQLContainer<>(BaseIT.POSTGRES_IMAGE)
+                .withNetwork(network)
+                .withNetworkAliases("primary")
+                .withDatabaseName("prop")
+                .withUsername("test")
+                .withPassword("test")
+                .withCopyToContainer(Transferable.of(ALLOW_REPLICATION, 0755),
+                        "/docker-entrypoint-initdb.d/replication.sh")
+                .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=replica", "-c", "max_wal_senders=4");
+        replica = new GenericContainer<>(BaseIT.POSTGRES_IMAGE)
+                .withNetwork(network)
+                .dependsOn(primary)
+                .withExposedPorts(5432)
+                .withCommand("bash", "-c", START_STANDBY)
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+        replica.start();
+    }
+
+    @DynamicPropertySource
+    public static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("contacts.datasource.replica.enabled", () -> "true");
+        registry.add("contacts.datasource.replica.url", ReplicaRoutingIntegrationTest::replicaUrl);
+        registry.add("contacts.datasource.replica.username", primary::getUsername);
+        registry.add("contacts.datasource.replica.password", primary::getPassword);
+        registry.add("contacts.datasource.replica.max-lag", () -> "500ms");
+        registry.add("contacts.datasource.replica.lag-check-interval", () -> "100ms");
+        registry.add("contacts.datasource.replica.read-your-writes", READ_YOUR_WRITES::toString);
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/prop";
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestRestTemplate template;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @AfterEach
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private boolean servedByReplica(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition was not met within " + TIMEOUT);
+            Thread.sleep(50);
+        }
+    }
+
+    private double routed(ReplicaRoutingDataSource.Reason reason) {
+        return meterRegistry.get("contacts.datasource.routing").tag("reason", reason.tag()).counter().count();
+    }
+
+    private static void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(login, null, List.of()));
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(), primary.getUsername(),
+                primary.getPassword()); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Test
+    public void readOnlyTransaction_IsServedByReplica_Test() throws Exception {
+        await(() -> servedByReplica(true));
+    }
+
+    @Test
+    public void readWriteTransaction_IsServedByPrimary_Test() {
+        assertFalse(servedByReplica(false));
+    }
+
+    @Test
+    public void readAfterOwnWrite_IsServedByPrimary_Test() throws Exception {
+        await(() -> servedByReplica(true));
+        authenticate("Writer");
+        servedByReplica(false);
+
+        assertFalse(servedByReplica(true));
+        authenticate("Reader");
+        assertTrue(servedByReplica(true));
+        authenticate("Writer");
+        Thread.sleep(READ_YOUR_WRITES.toMillis());
+        assertTrue(servedByReplica(true));
+    }
+
+    @Test
+    public void readOutsideTransaction_DoesNotPinToPrimary_Test() throws Exception {
+        await(() -> servedByReplica(true));
+        authenticate("Outsider");
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertTrue(servedByReplica(true));
+    }
+
+    @Test
+    public void replicaBehindLagTolerance_IsBypassed_Test() throws Exception {
+        await(() -> servedByReplica(true));
+        execute("SELECT pg_wal_replay_pause()");
+        try {
+            jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+            await(() -> !servedByReplica(true));
+        } finally {
+            execute("SELECT pg_wal_replay_resume()");
+        }
+        await(() -> servedByReplica(true));
+    }
+
+    @Test
+    public void contactsPage_AfterCreate_ReadsOwnWrite_Test() throws Exception {
+        AuthenticationRequest request = new AuthenticationRequest("Replica", "pass123456");
+        String token = userService.register(request).getToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add("Authorization", "Bearer " + token);
+        ContactDto contact = ContactDto.builder()
+                .name("Standby")
+                .emails(Set.of("standby@replica.io"))
+                .phones(Set.of("+380 93 111 2233")).build();
+
+        await(() -> servedByReplica(true));
+        execute("SELECT pg_wal_replay_pause()");
+        ResponseEntity<ContactDto> created;
+        ResponseEntity<String> page;
+        double pinnedReads;
+        double lagFallbacks;
+        try {
+            created = template.postForEntity("http://localhost:" + port + "/api/v1/contacts/create",
+                    new HttpEntity<>(contact, headers), ContactDto.class);
+            pinnedReads = routed(ReplicaRoutingDataSource.Reason.READ_YOUR_WRITES);
+            lagFallbacks = routed(ReplicaRoutingDataSource.Reason.REPLICA_LAG);
+            page = template.exchange("http://localhost:" + port + "/api/v1/users/{login}/contacts",
+                    HttpMethod.GET, new HttpEntity<>(headers), String.class, request.getLogin());
+        } finally {
+            execute("SELECT pg_wal_replay_resume()");
+        }
+
+        assertEquals(CREATED, created.getStatusCode());
+        assertEquals(OK, page.getStatusCode());
+        assertNotNull(page.getBody());
+        assertTrue(page.getBody().contains("Standby"));
+        assertTrue(routed(ReplicaRoutingDataSource.Reason.READ_YOUR_WRITES) > pinnedReads);
+        assertEquals(lagFallbacks, routed(ReplicaRoutingDataSource.Reason.REPLICA_LAG));
+    }
+}
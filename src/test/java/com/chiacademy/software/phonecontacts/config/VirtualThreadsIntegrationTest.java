@@ -0,0 +1,102 @@
+package com.chiacademy.software.phonecontacts.config;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpStatus.OK;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "contacts.virtual-threads.enabled=true")
+public class VirtualThreadsIntegrationTest extends BaseIT {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private TestRestTemplate template;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    @LocalServerPort
+    private int port;
+
+    private final AuthenticationRequest request = new AuthenticationRequest("Virtual", "pass123456");
+
+    private String token;
+
+    @BeforeAll
+    public void init() throws Exception {
+        token = userService.register(request).getToken();
+    }
+
+    private HttpStatusCode getContacts() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + token);
+        return template.exchange("http://localhost:" + port + "/api/v1/users/{login}/contacts", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class, request.getLogin()).getStatusCode();
+    }
+
+    @Test
+    public void virtualThreadExecutor_StartsVirtualThreads_Test() throws Exception {
+        String threadClass = virtualThreadExecutor.submit(() -> Thread.currentThread().getClass().getName()).get();
+
+        assertTrue(threadClass.endsWith("VirtualThread"), threadClass);
+    }
+
+    @Test
+    public void concurrentRequests_DoNotPinCarrierThreads_Test() throws Exception {
+        Path dump = Files.createTempFile("virtual-threads", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            List<CompletableFuture<HttpStatusCode>> responses = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(this::getContacts, virtualThreadExecutor))
+                    .toList();
+            responses.forEach(response -> assertEquals(OK, response.join()));
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals(PINNED_EVENT))
+                    .toList();
+            assertTrue(pinned.isEmpty(), () -> "Carrier threads were pinned: " + pinned);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
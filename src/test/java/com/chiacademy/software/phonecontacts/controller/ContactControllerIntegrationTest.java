@@ -1,15 +1,24 @@
 package com.chiacademy.software.phonecontacts.controller;
 
 import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.exception.Error;
+import com.chiacademy.software.phonecontacts.exception.handler.ControllerExceptionHandler;
 import com.chiacademy.software.phonecontacts.model.Contact;
 import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDeleteReport;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportError;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
 import com.chiacademy.software.phonecontacts.repository.ContactRepository;
 import com.chiacademy.software.phonecontacts.repository.UserRepository;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.service.ContactFileServiceImpl;
 import com.chiacademy.software.phonecontacts.service.JwtService;
 import com.chiacademy.software.phonecontacts.service.UserService;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
+import com.chiacademy.software.phonecontacts.utils.SqlStatementCounter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -20,13 +29,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +49,7 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
@@ -65,6 +80,14 @@ public class ContactControllerIntegrationTest extends BaseIT {
     private ContactRepository contactRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ControllerExceptionHandler controllerExceptionHandler;
 
     private String createURLWithPort() {
         return "http://localhost:" + port + "/api/v1";
@@ -186,14 +209,14 @@ public class ContactControllerIntegrationTest extends BaseIT {
         String oldContactName = "Petya";
         HttpEntity<ContactDto> entity = new HttpEntity<>(updatedContact, headers);
 
-        ResponseEntity<Contact> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
-                HttpMethod.PUT, entity, Contact.class, oldContactName);
+        ResponseEntity<ContactDto> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PUT, entity, ContactDto.class, oldContactName);
         assertEquals(OK, result.getStatusCode());
-        Contact contactAfterUpdate = result.getBody();
+        ContactDto contactAfterUpdate = result.getBody();
         assertNotNull(contactAfterUpdate);
         assertEquals(updatedContact.getName(), contactAfterUpdate.getName());
         assertEquals(updatedContact.getEmails(), contactAfterUpdate.getEmails());
-        assertEquals(updatedContact.getPhones(), contactAfterUpdate.getPhones());
+        assertEquals(PhoneNumbers.normalize(updatedContact.getPhones()), contactAfterUpdate.getPhones());
     }
 
     @Test
@@ -217,4 +240,398 @@ public class ContactControllerIntegrationTest extends BaseIT {
         List problemDetails = (List) detail.getProperties().get("problemDetails");
         assertEquals("unknown", ((LinkedHashMap) problemDetails.get(0)).get("wrongValue"));
     }
+
+    @Test
+    @Order(7)
+    public void importContacts_WhenNdjson_Test() {
+        String body = """
+                {"name":"Olena","emails":["olena@gmail.com"],"phones":["+380 67 111 2233"]}
+                {"name":"Taras","phones":["12345"]}
+                {"name":"Petro","emails":["Petro@gmail.com"]}
+                {"name":"Olena","emails":["olena2@gmail.com"]}
+                {"name":"Ostap","emails":["ostap@gmail.com"],"phones":["+380671112234"]}
+                {"name":
+                """;
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.addAll(headers);
+        importHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<ContactImportReport> result = template.postForEntity(createURLWithPort() + "/contacts/import",
+                new HttpEntity<>(body, importHeaders), ContactImportReport.class);
+        ContactImportReport report = result.getBody();
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(report);
+        assertEquals(6, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(2L, 3L, 4L, 6L), report.getErrors().stream().map(ContactImportError::getRow).toList());
+        assertEquals("phones", report.getErrors().get(0).getProblems().get(0).getField());
+        assertEquals("Petro@gmail.com", report.getErrors().get(1).getProblems().get(0).getWrongValue());
+        assertEquals("name", report.getErrors().get(2).getProblems().get(0).getField());
+        assertEquals("Values can not be read", report.getErrors().get(3).getProblems().get(0).getMessage());
+        Long userId = userRepository.findByLogin(request.getLogin()).orElseThrow().getId();
+        assertTrue(contactRepository.findContactByNameAndUser("Ostap",
+                userRepository.getReferenceById(userId)).isPresent());
+    }
+
+    @Test
+    @Order(8)
+    public void importContacts_WhenCsv_Test() {
+        String body = """
+                name,emails,phones
+                Ivanka,ivanka@gmail.com;ivanka@ukr.net,+380 50 777 8899
+                Ostap,ostap2@gmail.com,+380 50 777 8800
+                """;
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.addAll(headers);
+        importHeaders.setContentType(MediaType.parseMediaType(ContactController.TEXT_CSV_VALUE));
+
+        ResponseEntity<ContactImportReport> result = template.postForEntity(createURLWithPort() + "/contacts/import",
+                new HttpEntity<>(body, importHeaders), ContactImportReport.class);
+        ContactImportReport report = result.getBody();
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(report);
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, report.getErrors().get(0).getRow());
+        assertEquals("Ostap", report.getErrors().get(0).getProblems().get(0).getWrongValue());
+    }
+
+    @Test
+    @Order(9)
+    public void createContact_WhenEmailAndPhoneAlreadyPresent_Test() {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Petro Dubl")
+                .emails(Set.of("Petro@gmail.com", "new.petro@gmail.com"))
+                .phones(Set.of("+380999123456"))
+                .build();
+
+        ResponseEntity<ProblemDetail> result = template.postForEntity(createURLWithPort() + "/contacts/create",
+                new HttpEntity<>(contactDto, headers), ProblemDetail.class);
+        ProblemDetail detail = result.getBody();
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(detail);
+        assertEquals("Data already exists", detail.getDetail());
+        assertNotNull(detail.getProperties());
+        List problemDetails = (List) detail.getProperties().get("problemDetails");
+        assertEquals(2, problemDetails.size());
+        assertEquals("Petro@gmail.com", ((LinkedHashMap) problemDetails.get(0)).get("wrongValue"));
+        assertEquals("+380999123456", ((LinkedHashMap) problemDetails.get(1)).get("wrongValue"));
+    }
+
+    @Test
+    @Order(10)
+    public void editContact_WhenPhoneBelongsToOtherContact_Test() {
+        ContactDto updatedContact = ContactDto.builder()
+                .name("Marina Svirska")
+                .emails(Set.of("svMaina@gmail.com"))
+                .phones(Set.of("+380 94 933 3433")).build();
+
+        ResponseEntity<ProblemDetail> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PUT, new HttpEntity<>(updatedContact, headers), ProblemDetail.class, "Marina Svirska");
+        ProblemDetail detail = result.getBody();
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(detail);
+        assertEquals("Data already exists", detail.getDetail());
+        assertNotNull(detail.getProperties());
+        List problemDetails = (List) detail.getProperties().get("problemDetails");
+        assertEquals(1, problemDetails.size());
+        assertEquals("Such phone is already present in your contacts",
+                ((LinkedHashMap) problemDetails.get(0)).get("message"));
+        assertEquals("+380949333433", ((LinkedHashMap) problemDetails.get(0)).get("wrongValue"));
+    }
+
+    @Test
+    @Order(11)
+    public void findByPhone_WhenSpacingDiffers_Test() {
+        ResponseEntity<ContactDto> result = template.exchange(createURLWithPort() + "/contacts/by-phone?phone={phone}",
+                HttpMethod.GET, new HttpEntity<>(headers), ContactDto.class, "+380 99 912 3456");
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Petro Ivanovich", result.getBody().getName());
+        assertTrue(result.getBody().getPhones().contains("+380999123456"));
+    }
+
+    @Test
+    @Order(12)
+    public void findByPhone_WhenPhoneIsUnknown_Test() {
+        ResponseEntity<ProblemDetail> result = template.exchange(createURLWithPort() + "/contacts/by-phone?phone={phone}",
+                HttpMethod.GET, new HttpEntity<>(headers), ProblemDetail.class, "+380000000000");
+
+        assertEquals(NOT_FOUND, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Data is not found", result.getBody().getDetail());
+    }
+
+    private List<String> autocomplete(String prefix) {
+        ResponseEntity<List<String>> result = template.exchange(
+                createURLWithPort() + "/contacts/autocomplete?prefix={prefix}",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {
+                }, prefix);
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        return result.getBody();
+    }
+
+    private List<ContactDto> search(String query) {
+        ResponseEntity<List<ContactDto>> result = template.exchange(createURLWithPort() + "/contacts/search?q={q}",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {
+                }, query);
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        return result.getBody();
+    }
+
+    @Test
+    @Order(13)
+    public void search_WhenNamePrefix_Test() {
+        sqlStatementCounter.reset();
+        List<ContactDto> contacts = search("mari");
+
+        sqlStatementCounter.assertCounts(2, 0, 0, 0);
+        assertFalse(contacts.isEmpty());
+        assertEquals("Marina Svirska", contacts.get(0).getName());
+    }
+
+    @Test
+    @Order(14)
+    public void search_WhenNameHasTypo_Test() {
+        assertEquals("Marina Svirska", search("Svirsky").get(0).getName());
+        assertEquals("Petro Ivanovich", search("ivanovih").get(0).getName());
+        assertEquals("Marina Svirska", search("marna svirska").get(0).getName());
+    }
+
+    @Test
+    @Order(15)
+    public void search_WhenEmailOrPhoneDigits_Test() {
+        assertEquals("Marina Svirska", search("svMaina@").get(0).getName());
+        assertEquals("Petro Ivanovich", search("999 123").get(0).getName());
+        assertEquals("Petro Ivanovich", search("+380 99 912").get(0).getName());
+    }
+
+    @Test
+    @Order(16)
+    public void search_WhenQueryIsTooShort_Test() {
+        ResponseEntity<ProblemDetail> result = template.exchange(createURLWithPort() + "/contacts/search?q={q}",
+                HttpMethod.GET, new HttpEntity<>(headers), ProblemDetail.class, "ab");
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Constraint violation", result.getBody().getDetail());
+    }
+
+    @Test
+    @Order(17)
+    public void autocomplete_WhenNameEmailOrPhonePrefix_Test() {
+        assertTrue(autocomplete("Mar").contains("Marina Svirska"));
+        sqlStatementCounter.reset();
+        assertTrue(autocomplete("svmaina").contains("Marina Svirska"));
+        assertTrue(autocomplete("+380 999").contains("Petro Ivanovich"));
+        sqlStatementCounter.assertCounts(0, 0, 0, 0);
+    }
+
+    @Test
+    @Order(18)
+    public void autocomplete_WhenContactCreatedAndDeleted_Test() {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Marichka")
+                .emails(Set.of("marichka@gmail.com"))
+                .phones(Set.of("+380 50 765 4321")).build();
+        template.postForEntity(createURLWithPort() + "/contacts/create", new HttpEntity<>(contactDto, headers),
+                ContactDto.class);
+
+        assertTrue(autocomplete("mari").contains("Marichka"));
+
+        template.exchange(createURLWithPort() + "/contacts/delete?contact=Marichka",
+                HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+
+        assertFalse(autocomplete("mari").contains("Marichka"));
+    }
+
+    @Test
+    @Order(19)
+    public void patchContact_WhenRenamedAndPhonesChanged_Test() {
+        ContactPatchDto patch = ContactPatchDto.builder()
+                .name("Petro Ivanenko")
+                .addPhones(Set.of("+380 67 555 0101"))
+                .removePhones(Set.of("+380 99 912 3456")).build();
+
+        ResponseEntity<ContactDto> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PATCH, new HttpEntity<>(patch, headers), ContactDto.class, "Petro Ivanovich");
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Petro Ivanenko", result.getBody().getName());
+        assertEquals(Set.of("Petro@gmail.com"), result.getBody().getEmails());
+        assertEquals(Set.of("+380949333433", "+380675550101"), result.getBody().getPhones());
+        assertTrue(autocomplete("petro").contains("Petro Ivanenko"));
+        assertFalse(autocomplete("petro").contains("Petro Ivanovich"));
+    }
+
+    @Test
+    @Order(20)
+    public void deleteContacts_WhenSomeNamesDoNotExist_Test() {
+        List<String> contactNames = List.of("Olena", "Ostap", "alien");
+
+        ResponseEntity<ContactDeleteReport> result = template.exchange(createURLWithPort() + "/contacts",
+                HttpMethod.DELETE, new HttpEntity<>(contactNames, headers), ContactDeleteReport.class);
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals(List.of("Olena", "Ostap"), result.getBody().getDeleted());
+        assertEquals(List.of("alien"), result.getBody().getNotFound());
+        User userOleksii = userRepository.findByLogin(request.getLogin()).orElseThrow();
+        assertTrue(contactRepository.findContactByNameAndUser("Olena", userOleksii).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM contacts_db.contact_emails WHERE email IN ('olena@gmail.com', 'ostap@gmail.com')",
+                Integer.class));
+        assertFalse(autocomplete("ol").contains("Olena"));
+    }
+
+    @Test
+    @Order(21)
+    public void importContacts_WhenCsvHeaderDoesNotMatch_Test() {
+        String body = """
+                name,phones,emails
+                Mykola,+380 50 777 8811,mykola@gmail.com
+                """;
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.addAll(headers);
+        importHeaders.setContentType(MediaType.parseMediaType(ContactController.TEXT_CSV_VALUE));
+
+        ResponseEntity<ProblemDetail> result = template.postForEntity(createURLWithPort() + "/contacts/import",
+                new HttpEntity<>(body, importHeaders), ProblemDetail.class);
+        ProblemDetail detail = result.getBody();
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(detail);
+        assertEquals("Invalid contact file", detail.getDetail());
+        List problemDetails = (List) detail.getProperties().get("problemDetails");
+        assertEquals(ContactFileServiceImpl.INVALID_CSV_HEADER, ((LinkedHashMap) problemDetails.get(0)).get("message"));
+        User userOleksii = userRepository.findByLogin(request.getLogin()).orElseThrow();
+        assertTrue(contactRepository.findContactByNameAndUser("Mykola", userOleksii).isEmpty());
+    }
+
+    @Test
+    @Order(22)
+    public void importContacts_WhenAutocompleteCached_RefreshesSuggestions_Test() {
+        assertFalse(autocomplete("myk").contains("Mykola"));
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.addAll(headers);
+        importHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<ContactImportReport> result = template.postForEntity(createURLWithPort() + "/contacts/import",
+                new HttpEntity<>("{\"name\":\"Mykola\",\"emails\":[\"mykola@gmail.com\"]}\n", importHeaders),
+                ContactImportReport.class);
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals(1, result.getBody().getImported());
+        assertTrue(autocomplete("myk").contains("Mykola"));
+    }
+
+    @Test
+    @Order(23)
+    public void patchContact_WhenAddedEmailBelongsToOtherContact_Test() {
+        ContactPatchDto patch = ContactPatchDto.builder()
+                .addEmails(Set.of("svMaina@gmail.com", "Petro@gmail.com")).build();
+
+        ResponseEntity<ProblemDetail> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PATCH, new HttpEntity<>(patch, headers), ProblemDetail.class, "Marina Svirska");
+        ProblemDetail detail = result.getBody();
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(detail);
+        assertEquals("Data already exists", detail.getDetail());
+        List problemDetails = (List) detail.getProperties().get("problemDetails");
+        assertEquals(1, problemDetails.size());
+        assertEquals("Petro@gmail.com", ((LinkedHashMap) problemDetails.get(0)).get("wrongValue"));
+    }
+
+    @Test
+    @Order(24)
+    public void importContacts_AllocatesIdsInBlocks_Test() {
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM contacts_db.contacts_id_seq", Long.class);
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.addAll(headers);
+        importHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+        String body = """
+                {"name":"Block One"}
+                {"name":"Block Two"}
+                {"name":"Block Three"}
+                """;
+
+        ResponseEntity<ContactImportReport> result = template.postForEntity(createURLWithPort() + "/contacts/import",
+                new HttpEntity<>(body, importHeaders), ContactImportReport.class);
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals(3, result.getBody().getImported());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM contacts_db.contacts WHERE name LIKE 'Block %' ORDER BY id", Long.class);
+        assertEquals(List.of(ids.get(0), ids.get(0) + 1, ids.get(0) + 2), ids);
+        assertEquals(lastValue + Contact.ID_ALLOCATION_SIZE,
+                jdbcTemplate.queryForObject("SELECT last_value FROM contacts_db.contacts_id_seq", Long.class));
+    }
+
+    @Test
+    @Order(25)
+    public void createContact_WhenNameAlreadyPresent_Test() {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Marina Svirska")
+                .emails(Set.of("another.marina@gmail.com"))
+                .phones(Set.of("+380931112299"))
+                .build();
+
+        ResponseEntity<ProblemDetail> result = template.postForEntity(createURLWithPort() + "/contacts/create",
+                new HttpEntity<>(contactDto, headers), ProblemDetail.class);
+        ProblemDetail detail = result.getBody();
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(detail);
+        assertEquals("Data already exists", detail.getDetail());
+        List problemDetails = (List) detail.getProperties().get("problemDetails");
+        assertEquals(1, problemDetails.size());
+        assertEquals("name", ((LinkedHashMap) problemDetails.get(0)).get("field"));
+        assertEquals("Contact with such name already exists", ((LinkedHashMap) problemDetails.get(0)).get("message"));
+    }
+
+    @Test
+    @Order(26)
+    public void flushBatch_WhenNameOrPhoneAlreadyPresent_MapsConstraint_Test() {
+        User user = userRepository.findByLogin(request.getLogin()).orElseThrow();
+        Contact duplicateName = Contact.builder().name("Marina Svirska")
+                .emails(new HashSet<>(Set.of("batch.marina@gmail.com"))).phones(new HashSet<>()).user(user).build();
+        Contact duplicatePhone = Contact.builder().name("Batch Phone")
+                .emails(new HashSet<>()).phones(new HashSet<>(Set.of("+380993767744"))).user(user).build();
+
+        Error nameError = flushConflict(user, duplicateName);
+        Error phoneError = flushConflict(user, duplicatePhone);
+
+        assertEquals("name", nameError.getField());
+        assertEquals("Contact with such name already exists", nameError.getMessage());
+        assertEquals("phones", phoneError.getField());
+        assertEquals(ControllerExceptionHandler.PHONE_ALREADY_PRESENT, phoneError.getMessage());
+        assertTrue(contactRepository.findContactByNameAndUser("Batch Fresh", user).isEmpty());
+    }
+
+    private Error flushConflict(User user, Contact conflicting) {
+        Contact fresh = Contact.builder().name("Batch Fresh")
+                .emails(new HashSet<>()).phones(new HashSet<>(Set.of("+380931112200"))).user(user).build();
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    contactRepository.saveAll(List.of(fresh, conflicting));
+                    contactRepository.flush();
+                }));
+        ProblemDetail detail = controllerExceptionHandler.handleDataIntegrityViolationException(e);
+        assertEquals("Data already exists", detail.getDetail());
+        List<Error> problemDetails = (List<Error>) detail.getProperties().get("problemDetails");
+        assertEquals(1, problemDetails.size());
+        return problemDetails.get(0);
+    }
 }
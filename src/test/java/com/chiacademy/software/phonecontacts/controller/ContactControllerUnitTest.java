@@ -1,31 +1,50 @@
 package com.chiacademy.software.phonecontacts.controller;
 
+import com.chiacademy.software.phonecontacts.exception.ContactDataAlreadyExistsException;
 import com.chiacademy.software.phonecontacts.exception.NotFoundException;
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactConflict;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDeleteReport;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
+import com.chiacademy.software.phonecontacts.service.ContactFileService;
 import com.chiacademy.software.phonecontacts.service.ContactService;
 import com.chiacademy.software.phonecontacts.service.JwtService;
+import com.chiacademy.software.phonecontacts.service.TokenVersionService;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.BatchUpdateException;
+import java.util.List;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -40,9 +59,15 @@ public class ContactControllerUnitTest {
     @MockBean
     private ContactService contactService;
 
+    @MockBean
+    private ContactFileService contactFileService;
+
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private TokenVersionService tokenVersionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -145,6 +170,34 @@ public class ContactControllerUnitTest {
         verify(contactService, times(1)).delete(contactName, null);
     }
 
+    @Test
+    public void deleteContacts_WhenOK_Test() throws Exception {
+        List<String> contactNames = List.of("Lena", "alien");
+        ContactDeleteReport report = ContactDeleteReport.builder()
+                .deleted(List.of("Lena")).notFound(List.of("alien")).build();
+        when(contactService.deleteAll(contactNames, null)).thenReturn(report);
+
+        mockMvc.perform(delete("/api/v1/contacts")
+                        .content(objectMapper.writeValueAsString(contactNames))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted[0]", Matchers.is("Lena")))
+                .andExpect(jsonPath("$.notFound[0]", Matchers.is("alien")));
+
+        verify(contactService, times(1)).deleteAll(contactNames, null);
+    }
+
+    @Test
+    public void deleteContacts_WhenNoNamesGiven_Test() throws Exception {
+        mockMvc.perform(delete("/api/v1/contacts")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(ContactController.DELETE_NAMES_SIZE)));
+
+        verifyNoInteractions(contactService);
+    }
+
     @Test
     public void editContact_WhenOK_Test() throws Exception {
         ContactDto contactDto = ContactDto.builder()
@@ -153,7 +206,7 @@ public class ContactControllerUnitTest {
                 .phones(Set.of("+380 93 933 3333", "+380 93 933 3334", "+380 93 933 3335"))
                 .build();
         String oldContactName = "Lena";
-        Contact updatedContact = Contact.builder()
+        ContactDto updatedContact = ContactDto.builder()
                 .name("Leno4ka")
                 .emails(Set.of("Leka@gmail.com", "lena999@gmail.com"))
                 .phones(Set.of("+380 93 933 3333", "+380 93 933 3334", "+380 93 933 3335"))
@@ -172,6 +225,40 @@ public class ContactControllerUnitTest {
         verify(contactService, times(1)).editContactByName(contactDto, oldContactName, null);
     }
 
+    @Test
+    public void patchContact_WhenOK_Test() throws Exception {
+        ContactPatchDto patch = ContactPatchDto.builder()
+                .name("Leno4ka")
+                .addPhones(Set.of("+380 93 933 3335")).build();
+        ContactDto patchedContact = ContactDto.builder()
+                .name("Leno4ka")
+                .emails(Set.of("Leka@gmail.com"))
+                .phones(Set.of("+380939333333", "+380939333335")).build();
+        when(contactService.patchContactByName(patch, "Lena", null)).thenReturn(patchedContact);
+
+        mockMvc.perform(patch("/api/v1/contacts/{contact}/edit", "Lena")
+                        .content(objectMapper.writeValueAsString(patch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", Matchers.is("Leno4ka")))
+                .andExpect(jsonPath("$.phones", Matchers.hasSize(2)));
+
+        verify(contactService, times(1)).patchContactByName(patch, "Lena", null);
+    }
+
+    @Test
+    public void patchContact_WhenPhoneIsInvalid_Test() throws Exception {
+        ContactPatchDto patch = ContactPatchDto.builder().addPhones(Set.of("call me")).build();
+
+        mockMvc.perform(patch("/api/v1/contacts/{contact}/edit", "Lena")
+                        .content(objectMapper.writeValueAsString(patch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(PhoneNumbers.INVALID_PHONE)));
+
+        verifyNoInteractions(contactService);
+    }
+
     @Test
     public void editContact_WhenContactDoesNotExist_Test() throws Exception {
         ContactDto contactDto = ContactDto.builder()
@@ -207,4 +294,193 @@ public class ContactControllerUnitTest {
 
         verify(contactService, times(1)).editContactByName(contactDto, oldContactName, null);
     }
+
+    @Test
+    public void createContact_WhenEmailAlreadyPresent_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .emails(Set.of("Leka@gmail.com"))
+                .phones(Set.of("+380 93 933 3333"))
+                .build();
+        ContactConflict conflict = new ContactConflict() {
+            @Override
+            public String getField() {
+                return "emails";
+            }
+
+            @Override
+            public String getValue() {
+                return "Leka@gmail.com";
+            }
+        };
+        String expectedJson = """
+                {
+                    "type": "about:blank",
+                    "title": "Bad Request",
+                    "status": 400,
+                    "detail": "Data already exists",
+                    "instance": "/api/v1/contacts/create",
+                    "problemDetails": [
+                        {
+                            "message": "Such email is already present in your contacts",
+                            "field": "emails",
+                            "wrongValue": "Leka@gmail.com"
+                        }
+                    ]
+                }
+                """;
+        when(contactService.create(contactDto, null)).thenThrow(new ContactDataAlreadyExistsException(
+                "Such phone/email is already present in your contacts", List.of(conflict)));
+
+        mockMvc.perform(post("/api/v1/contacts/create")
+                        .content(objectMapper.writeValueAsString(contactDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json(expectedJson));
+    }
+
+    @Test
+    public void createContact_WhenBatchInsertHitsUniqueIndex_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .emails(Set.of("Leka@gmail.com"))
+                .build();
+        PSQLException uniqueViolation = new PSQLException(new ServerErrorMessage(
+                "SERROR\0C23505\0Mduplicate key value\0nuq_contact_emails_user_email\0"));
+        when(contactService.create(contactDto, null)).thenThrow(new DuplicateKeyException("Batch insert failed",
+                new BatchUpdateException("Batch entry 0 was aborted", "23505", 0, new int[0], uniqueViolation)));
+
+        mockMvc.perform(post("/api/v1/contacts/create")
+                        .content(objectMapper.writeValueAsString(contactDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", Matchers.is("Data already exists")))
+                .andExpect(jsonPath("$.problemDetails[0].field", Matchers.is("emails")))
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is("Such email is already present in your contacts")));
+    }
+
+    @Test
+    public void createContact_WhenPhoneIsNotE164_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .phones(Set.of("+038 93 933 3333"))
+                .build();
+
+        mockMvc.perform(post("/api/v1/contacts/create")
+                        .content(objectMapper.writeValueAsString(contactDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", Matchers.is("Failed validation")))
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(PhoneNumbers.INVALID_PHONE)));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    public void createContact_WhenPhoneViolatesCheckConstraint_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .phones(Set.of("+380 93 933 3333"))
+                .build();
+        PSQLException checkViolation = new PSQLException(new ServerErrorMessage(
+                "SERROR\0C23514\0Mviolates check constraint\0nchk_contact_phone_numbers_e164\0"));
+        when(contactService.create(contactDto, null)).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", checkViolation));
+
+        mockMvc.perform(post("/api/v1/contacts/create")
+                        .content(objectMapper.writeValueAsString(contactDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", Matchers.is("Failed validation")))
+                .andExpect(jsonPath("$.problemDetails[0].field", Matchers.is("phones")))
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(PhoneNumbers.INVALID_PHONE)));
+    }
+
+    @Test
+    public void findByPhone_WhenOk_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .phones(Set.of("+380939333333"))
+                .build();
+        when(contactService.findByPhone("+380 93 933 3333", null)).thenReturn(contactDto);
+
+        mockMvc.perform(get("/api/v1/contacts/by-phone").param("phone", "+380 93 933 3333"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", Matchers.is("Lena")))
+                .andExpect(jsonPath("$.phones[0]", Matchers.is("+380939333333")));
+    }
+
+    @Test
+    public void findByPhone_WhenPhoneIsInvalid_Test() throws Exception {
+        mockMvc.perform(get("/api/v1/contacts/by-phone").param("phone", "12345"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", Matchers.is("Constraint violation")));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    public void search_WhenOk_Test() throws Exception {
+        ContactDto contactDto = ContactDto.builder().name("Marina Svirska").build();
+        when(contactService.search("mari", 20, null)).thenReturn(List.of(contactDto));
+
+        mockMvc.perform(get("/api/v1/contacts/search").param("q", "mari"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", Matchers.is("Marina Svirska")));
+
+        verify(contactService, times(1)).search("mari", 20, null);
+    }
+
+    @Test
+    public void search_WhenLimitIsTooBig_Test() throws Exception {
+        mockMvc.perform(get("/api/v1/contacts/search").param("q", "mari").param("limit", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(ContactController.SEARCH_LIMIT_RANGE)));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    public void autocomplete_WhenOk_Test() throws Exception {
+        when(contactService.autocomplete("mar", 10, null)).thenReturn(List.of("Marina Svirska"));
+
+        mockMvc.perform(get("/api/v1/contacts/autocomplete").param("prefix", "mar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", Matchers.is("Marina Svirska")));
+
+        verify(contactService, times(1)).autocomplete("mar", 10, null);
+    }
+
+    @Test
+    public void autocomplete_WhenLimitIsTooBig_Test() throws Exception {
+        mockMvc.perform(get("/api/v1/contacts/autocomplete").param("prefix", "mar").param("limit", "51"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.problemDetails[0].message",
+                        Matchers.is(ContactController.AUTOCOMPLETE_LIMIT_RANGE)));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    public void importContacts_WhenNdjson_Test() throws Exception {
+        ContactImportReport report = ContactImportReport.builder()
+                .totalRows(1).imported(1).rejected(0).errors(List.of()).build();
+        when(contactFileService.importContacts(any(), eq(ContactFileFormat.NDJSON), any())).thenReturn(report);
+        mockMvc.perform(post("/api/v1/contacts/import")
+                        .content("{\"name\":\"Lena\"}")
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", Matchers.is(1)))
+                .andExpect(jsonPath("$.rejected", Matchers.is(0)));
+
+        verify(contactFileService, times(1)).importContacts(any(), eq(ContactFileFormat.NDJSON), any());
+    }
+
+    @Test
+    public void importContacts_WhenUnsupportedMediaType_Test() throws Exception {
+        mockMvc.perform(post("/api/v1/contacts/import")
+                        .content("<contacts/>")
+                        .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isUnsupportedMediaType());
+    }
 }
@@ -0,0 +1,124 @@
+package com.chiacademy.software.phonecontacts.controller;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.OK;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MetricsIntegrationTest extends BaseIT {
+
+    private static final String CONTACTS_URI = "uri=\"/api/v1/users/{login}/contacts\"";
+
+    @Autowired
+    private TestRestTemplate template;
+
+    @Autowired
+    private UserService userService;
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private String metrics;
+
+    @BeforeAll
+    public void init() throws Exception {
+        AuthenticationRequest request = new AuthenticationRequest("Metrics", "pass123456");
+        String token = userService.register(request).getToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + token);
+        ResponseEntity<String> contacts = template.exchange("http://localhost:" + port + "/api/v1/users/{login}/contacts",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class, request.getLogin());
+        assertEquals(OK, contacts.getStatusCode());
+
+        ResponseEntity<String> scrape = template.getForEntity("http://localhost:" + managementPort +
+                "/actuator/prometheus", String.class);
+        assertEquals(OK, scrape.getStatusCode());
+        assertNotNull(scrape.getBody());
+        metrics = scrape.getBody();
+    }
+
+    private boolean hasSample(String name, String... labels) {
+        return metrics.lines()
+                .filter(line -> line.startsWith(name + "{"))
+                .anyMatch(line -> List.of(labels).stream().allMatch(line::contains));
+    }
+
+    private double sampleValue(String name, String... labels) {
+        return metrics.lines()
+                .filter(line -> line.startsWith(name + "{"))
+                .filter(line -> List.of(labels).stream().allMatch(line::contains))
+                .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+                .sum();
+    }
+
+    @Test
+    public void prometheus_ExposesRouteTimersWithSloBuckets_Test() {
+        assertTrue(hasSample("http_server_requests_seconds_count", CONTACTS_URI, "method=\"GET\""));
+        assertTrue(hasSample("http_server_requests_seconds_bucket", CONTACTS_URI, "le=\"0.025\""));
+    }
+
+    @Test
+    public void prometheus_ExposesServiceMethodTimers_Test() {
+        assertTrue(hasSample("contacts_service_seconds_count", "class=\"com.chiacademy.software.phonecontacts" +
+                ".service.UserServiceImpl\"", "method=\"getAllContactsByLogin\""));
+    }
+
+    @Test
+    public void prometheus_ExposesJwtVerificationTimer_Test() {
+        assertTrue(hasSample("contacts_jwt_verification_seconds_count", "outcome=\"valid\""));
+    }
+
+    @Test
+    public void prometheus_ExposesDataLayerMetrics_Test() {
+        assertTrue(hasSample("hikaricp_connections_active"));
+        assertTrue(hasSample("hibernate_statements_total"));
+        assertTrue(hasSample("contacts_hibernate_request_statements_count", CONTACTS_URI));
+        assertTrue(sampleValue("contacts_hibernate_request_statements_sum", CONTACTS_URI) >= 1);
+        assertTrue(hasSample("contacts_hibernate_request_entity_loads_count", CONTACTS_URI));
+        assertTrue(hasSample("contacts_hibernate_request_collection_fetches_count", CONTACTS_URI));
+    }
+
+    @Test
+    public void health_IsPublic_Test() {
+        ResponseEntity<String> health = template.getForEntity("http://localhost:" + managementPort +
+                "/actuator/health", String.class);
+
+        assertEquals(OK, health.getStatusCode());
+    }
+
+    @Test
+    public void prometheus_IsNotServedOnApplicationPort_Test() {
+        ResponseEntity<String> scrape = template.getForEntity("http://localhost:" + port + "/actuator/prometheus",
+                String.class);
+
+        assertEquals(FORBIDDEN, scrape.getStatusCode());
+    }
+}
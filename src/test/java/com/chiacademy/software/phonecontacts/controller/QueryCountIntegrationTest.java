@@ -0,0 +1,223 @@
+package com.chiacademy.software.phonecontacts.controller;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactPatchDto;
+import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
+import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.utils.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class QueryCountIntegrationTest extends BaseIT {
+
+    @Autowired
+    private TestRestTemplate template;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @LocalServerPort
+    private int port;
+
+    private final AuthenticationRequest request = new AuthenticationRequest("Counter", "pass123456");
+
+    private Statistics statistics;
+
+    private HttpHeaders headers;
+
+    private String etag;
+
+    private String createURLWithPort() {
+        return "http://localhost:" + port + "/api/v1";
+    }
+
+    @BeforeAll
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    public void clearStatistics() {
+        statistics.clear();
+        sqlStatementCounter.reset();
+    }
+
+    @Test
+    @Order(1)
+    public void register_StatementCount_Test() {
+        template.postForEntity(createURLWithPort() + "/users/register",
+                new HttpEntity<>(new AuthenticationRequest("Counter0", "pass123456")), AuthenticationResponse.class);
+        statistics.clear();
+        sqlStatementCounter.reset();
+
+        ResponseEntity<AuthenticationResponse> response = template.postForEntity(
+                createURLWithPort() + "/users/register", new HttpEntity<>(request), AuthenticationResponse.class);
+
+        assertEquals(CREATED, response.getStatusCode());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 2, 0, 1);
+    }
+
+    @Test
+    @Order(2)
+    public void login_StatementCount_Test() {
+        ResponseEntity<AuthenticationResponse> response = template.postForEntity(
+                createURLWithPort() + "/users/auth", new HttpEntity<>(request), AuthenticationResponse.class);
+
+        assertEquals(OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 1, 0, 1);
+
+        headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + response.getBody().getToken());
+        headers.add("Content-Type", "application/json");
+    }
+
+    @Test
+    @Order(3)
+    public void createContact_StatementCount_Test() {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Lena")
+                .emails(Set.of("Leka@gmail.com", "lena999@gmail.com"))
+                .phones(Set.of("+380 93 933 3333", "+380 93 933 3334"))
+                .build();
+        template.postForEntity(createURLWithPort() + "/contacts/create", new HttpEntity<>(ContactDto.builder()
+                .name("Warmup").build(), headers), ContactDto.class);
+        statistics.clear();
+        sqlStatementCounter.reset();
+
+        ResponseEntity<ContactDto> result = template.postForEntity(
+                createURLWithPort() + "/contacts/create", new HttpEntity<>(contactDto, headers), ContactDto.class);
+
+        assertEquals(CREATED, result.getStatusCode());
+        assertEquals(5, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 3, 1, 0);
+    }
+
+    @Test
+    @Order(4)
+    public void getAllContactsByUser_StatementCount_Test() {
+        ContactDto contactDto = ContactDto.builder()
+                .name("Petya")
+                .emails(Set.of("Petro@gmail.com", "besheniy@gmail.com"))
+                .phones(Set.of("+380 94 933 3433", "+380999123456")).build();
+        template.postForEntity(createURLWithPort() + "/contacts/create", new HttpEntity<>(contactDto, headers),
+                ContactDto.class);
+        statistics.clear();
+        sqlStatementCounter.reset();
+
+        ResponseEntity<String> result = template.exchange(createURLWithPort() + "/users/{login}/contacts",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class, request.getLogin());
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(2, 0, 0, 0);
+        assertEquals(0, statistics.getEntityLoadCount());
+        etag = result.getHeaders().getETag();
+    }
+
+    @Test
+    @Order(5)
+    public void getAllContactsByUserNotModified_StatementCount_Test() {
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.putAll(headers);
+        conditional.setIfNoneMatch(etag);
+
+        ResponseEntity<String> result = template.exchange(createURLWithPort() + "/users/{login}/contacts",
+                HttpMethod.GET, new HttpEntity<>(conditional), String.class, request.getLogin());
+
+        assertEquals(NOT_MODIFIED, result.getStatusCode());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 0, 0, 0);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @Order(6)
+    public void editContact_StatementCount_Test() {
+        ContactDto updatedContact = ContactDto.builder()
+                .name("Leno4ka")
+                .emails(Set.of("Leka@gmail.com"))
+                .phones(Set.of("+380 93 933 3333", "+380 93 933 3334")).build();
+        ResponseEntity<String> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PUT, new HttpEntity<>(updatedContact, headers), String.class, "Lena");
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 0, 2, 1);
+    }
+
+    @Test
+    @Order(7)
+    public void deleteContact_StatementCount_Test() {
+        ResponseEntity<String> result = template.exchange(createURLWithPort() + "/contacts/delete?contact=Leno4ka",
+                HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(0, 0, 1, 1);
+    }
+
+    @Test
+    @Order(8)
+    public void patchContactRename_StatementCount_Test() {
+        ContactPatchDto patch = ContactPatchDto.builder().name("Petro").build();
+        ResponseEntity<ContactDto> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PATCH, new HttpEntity<>(patch, headers), ContactDto.class, "Petya");
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals(2, result.getBody().getEmails().size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(1, 0, 2, 0);
+    }
+
+    @Test
+    @Order(9)
+    public void patchContactPhones_StatementCount_Test() {
+        ContactPatchDto patch = ContactPatchDto.builder()
+                .addPhones(Set.of("+380 94 933 3434"))
+                .removePhones(Set.of("+380 94 933 3433")).build();
+        ResponseEntity<ContactDto> result = template.exchange(createURLWithPort() + "/contacts/{contact}/edit",
+                HttpMethod.PATCH, new HttpEntity<>(patch, headers), ContactDto.class, "Petro");
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(5, statistics.getPrepareStatementCount());
+        sqlStatementCounter.assertCounts(2, 1, 1, 1);
+    }
+}
@@ -2,13 +2,21 @@ package com.chiacademy.software.phonecontacts.controller;
 
 import com.chiacademy.software.phonecontacts.BaseIT;
 import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.model.User;
+import com.chiacademy.software.phonecontacts.model.dto.ContactCursorPage;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
 import com.chiacademy.software.phonecontacts.repository.UserRepository;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.security.RefreshTokenRequest;
 import com.chiacademy.software.phonecontacts.service.JwtService;
+import com.chiacademy.software.phonecontacts.service.RefreshTokenService;
 import com.chiacademy.software.phonecontacts.service.UserService;
+import com.chiacademy.software.phonecontacts.utils.PhoneNumbers;
 import com.chiacademy.software.phonecontacts.utils.RestPageImpl;
+import com.chiacademy.software.phonecontacts.utils.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -26,6 +34,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,11 +43,15 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -62,6 +75,12 @@ public class UserControllerIntegrationTest extends BaseIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     private String createURLWithPort() {
         return "http://localhost:" + port + "/api/v1";
     }
@@ -180,6 +199,8 @@ public class UserControllerIntegrationTest extends BaseIT {
         List<Contact> contentList = contacts.getContent();
         assertEquals(2, contentList.size());
         assertEquals(contactPetya.getName(), contentList.get(0).getName());
+        assertEquals(contactPetya.getEmails(), contentList.get(0).getEmails());
+        assertEquals(PhoneNumbers.normalize(contactPetya.getPhones()), contentList.get(0).getPhones());
         assertEquals(contactMarina.getName(), contentList.get(1).getName());
     }
 
@@ -208,4 +229,227 @@ public class UserControllerIntegrationTest extends BaseIT {
         List problemDetails = (List) detail.getProperties().get("problemDetails");
         assertEquals("Access is not allowed", ((LinkedHashMap) problemDetails.get(0)).get("message"));
     }
+
+    @Test
+    @Order(8)
+    public void getContactsByCursor_WhenOk_Test() {
+        AuthenticationRequest request = new AuthenticationRequest("Oleksii", "pass123");
+        AuthenticationResponse response = userService.login(request);
+        headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + response.getToken());
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+        sqlStatementCounter.reset();
+
+        ResponseEntity<ContactCursorPage> first = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/cursor?size=1", HttpMethod.GET,
+                entity, ContactCursorPage.class, request.getLogin());
+
+        assertEquals(OK, first.getStatusCode());
+        assertNotNull(first.getBody());
+        assertEquals(1, first.getBody().getContent().size());
+        assertEquals("Marina Svirska", first.getBody().getContent().get(0).getName());
+        assertNotNull(first.getBody().getNextCursor());
+        sqlStatementCounter.assertCounts(1, 0, 0, 0);
+        sqlStatementCounter.reset();
+
+        ResponseEntity<ContactCursorPage> second = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/cursor?size=1&cursor={cursor}", HttpMethod.GET,
+                entity, ContactCursorPage.class, request.getLogin(), first.getBody().getNextCursor());
+
+        assertEquals(OK, second.getStatusCode());
+        assertNotNull(second.getBody());
+        assertEquals(1, second.getBody().getContent().size());
+        assertEquals("Petya", second.getBody().getContent().get(0).getName());
+        assertNull(second.getBody().getNextCursor());
+        sqlStatementCounter.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @Order(9)
+    public void getContactsByCursor_WhenCursorIsMalformed_Test() {
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<ProblemDetail> result = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/cursor?cursor={cursor}", HttpMethod.GET,
+                entity, ProblemDetail.class, "Oleksii", "not-a-cursor");
+
+        assertEquals(BAD_REQUEST, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Wrong input parameter", result.getBody().getDetail());
+    }
+
+    @Test
+    @Order(10)
+    public void exportContacts_WhenNdjson_Test() throws Exception {
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<String> result = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/export", HttpMethod.GET,
+                entity, String.class, "Oleksii");
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, result.getHeaders().getContentType());
+        assertNotNull(result.getBody());
+        List<String> lines = result.getBody().lines().toList();
+        assertEquals(2, lines.size());
+        ContactDto first = objectMapper.readValue(lines.get(0), ContactDto.class);
+        assertEquals("Marina Svirska", first.getName());
+        assertEquals(Set.of("svMaina@gmail.com"), first.getEmails());
+        assertEquals(Set.of("+380995673433", "+380993767744"), first.getPhones());
+        assertEquals("Petya", objectMapper.readValue(lines.get(1), ContactDto.class).getName());
+    }
+
+    @Test
+    @Order(11)
+    public void exportContacts_WhenCsv_Test() {
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<String> result = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/export?format=CSV", HttpMethod.GET,
+                entity, String.class, "Oleksii");
+
+        assertEquals(OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        List<String> lines = result.getBody().lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("name,emails,phones", lines.get(0));
+        assertTrue(lines.get(1).startsWith("\"Marina Svirska\",svMaina@gmail.com,"));
+    }
+
+    @Test
+    @Order(12)
+    public void exportContacts_WhenNotOwnerLogin_Test() {
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<ProblemDetail> result = template.exchange(
+                createURLWithPort() + "/users/{login}/contacts/export", HttpMethod.GET,
+                entity, ProblemDetail.class, "Rebeca");
+
+        assertEquals(FORBIDDEN, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("Illegal access", result.getBody().getDetail());
+    }
+
+    @Test
+    @Order(13)
+    public void login_WhenPasswordHashIsOutdated_UpgradesHash_Test() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("legacy12345");
+        userRepository.save(User.builder().login("Legacy").password(legacyHash).role(Role.USER).build());
+        HttpEntity<AuthenticationRequest> entityRequest =
+                new HttpEntity<>(new AuthenticationRequest("Legacy", "legacy12345"));
+
+        ResponseEntity<AuthenticationResponse> first = template.postForEntity(
+                createURLWithPort() + "/users/auth", entityRequest, AuthenticationResponse.class);
+        String upgradedHash = userRepository.findByLogin("Legacy").orElseThrow().getPassword();
+        ResponseEntity<AuthenticationResponse> second = template.postForEntity(
+                createURLWithPort() + "/users/auth", entityRequest, AuthenticationResponse.class);
+
+        assertEquals(OK, first.getStatusCode());
+        assertEquals(OK, second.getStatusCode());
+        assertTrue(upgradedHash.startsWith("{bcrypt}$2a$"));
+        assertTrue(Integer.parseInt(upgradedHash.substring(12, 14)) >= 10);
+        assertEquals(upgradedHash, userRepository.findByLogin("Legacy").orElseThrow().getPassword());
+    }
+
+    @Test
+    @Order(14)
+    public void refresh_RotatesTokenAndDetectsReuse_Test() {
+        ResponseEntity<AuthenticationResponse> login = template.postForEntity(createURLWithPort() + "/users/auth",
+                new HttpEntity<>(new AuthenticationRequest("Legacy", "legacy12345")), AuthenticationResponse.class);
+        assertEquals(OK, login.getStatusCode());
+        assertNotNull(login.getBody());
+        String firstRefreshToken = login.getBody().getRefreshToken();
+        assertNotNull(firstRefreshToken);
+
+        ResponseEntity<AuthenticationResponse> refreshed = refresh(firstRefreshToken, AuthenticationResponse.class);
+        assertEquals(OK, refreshed.getStatusCode());
+        assertNotNull(refreshed.getBody());
+        assertEquals("Legacy", jwtService.extractLogin(refreshed.getBody().getToken()));
+        String secondRefreshToken = refreshed.getBody().getRefreshToken();
+        assertNotNull(secondRefreshToken);
+        assertFalse(firstRefreshToken.equals(secondRefreshToken));
+        headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + refreshed.getBody().getToken());
+        assertEquals(OK, getContacts("Legacy", null).getStatusCode());
+
+        ResponseEntity<ProblemDetail> reused = refresh(firstRefreshToken, ProblemDetail.class);
+        assertEquals(UNAUTHORIZED, reused.getStatusCode());
+        assertNotNull(reused.getBody());
+        List problemDetails = (List) reused.getBody().getProperties().get("problemDetails");
+        assertEquals(RefreshTokenService.REUSED_REFRESH_TOKEN, ((LinkedHashMap) problemDetails.get(0)).get("message"));
+
+        assertEquals(UNAUTHORIZED, refresh(secondRefreshToken, ProblemDetail.class).getStatusCode());
+        assertEquals(FORBIDDEN, getContacts("Legacy", null).getStatusCode());
+    }
+
+    @Test
+    @Order(15)
+    public void logout_RevokesRefreshToken_Test() {
+        ResponseEntity<AuthenticationResponse> login = template.postForEntity(createURLWithPort() + "/users/auth",
+                new HttpEntity<>(new AuthenticationRequest("Legacy", "legacy12345")), AuthenticationResponse.class);
+        assertNotNull(login.getBody());
+        RefreshTokenRequest request = new RefreshTokenRequest(login.getBody().getRefreshToken());
+
+        ResponseEntity<Void> logout = template.postForEntity(createURLWithPort() + "/users/logout",
+                new HttpEntity<>(request), Void.class);
+
+        assertEquals(NO_CONTENT, logout.getStatusCode());
+        assertEquals(UNAUTHORIZED, refresh(request.getRefreshToken(), ProblemDetail.class).getStatusCode());
+    }
+
+    @Test
+    @Order(16)
+    public void getAllContactsByUser_WhenNotModified_Test() {
+        AuthenticationResponse response = userService.login(new AuthenticationRequest("Legacy", "legacy12345"));
+        headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + response.getToken());
+
+        ResponseEntity<String> first = getContacts("Legacy", null);
+        String etag = first.getHeaders().getETag();
+        assertEquals(OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("\""));
+
+        ResponseEntity<String> unchanged = getContacts("Legacy", etag);
+        assertEquals(NOT_MODIFIED, unchanged.getStatusCode());
+        assertEquals(etag, unchanged.getHeaders().getETag());
+        assertNull(unchanged.getBody());
+
+        ContactDto contact = ContactDto.builder()
+                .name("Versioned")
+                .emails(Set.of("versioned@gmail.com")).build();
+        assertEquals(CREATED, template.postForEntity(createURLWithPort() + "/contacts/create",
+                new HttpEntity<>(contact, headers), ContactDto.class).getStatusCode());
+
+        ResponseEntity<String> created = getContacts("Legacy", etag);
+        assertEquals(OK, created.getStatusCode());
+        assertNotNull(created.getBody());
+        assertTrue(created.getBody().contains("Versioned"));
+        assertFalse(etag.equals(created.getHeaders().getETag()));
+
+        template.exchange(createURLWithPort() + "/contacts/delete?contact=Versioned", HttpMethod.DELETE,
+                new HttpEntity<>(headers), String.class);
+
+        ResponseEntity<String> deleted = getContacts("Legacy", created.getHeaders().getETag());
+        assertEquals(OK, deleted.getStatusCode());
+        assertFalse(created.getHeaders().getETag().equals(deleted.getHeaders().getETag()));
+    }
+
+    private ResponseEntity<String> getContacts(String login, String ifNoneMatch) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.putAll(headers);
+        if (ifNoneMatch != null) {
+            requestHeaders.setIfNoneMatch(ifNoneMatch);
+        }
+        return template.exchange(createURLWithPort() + "/users/{login}/contacts", HttpMethod.GET,
+                new HttpEntity<>(requestHeaders), String.class, login);
+    }
+
+    private <T> ResponseEntity<T> refresh(String refreshToken, Class<T> type) {
+        return template.postForEntity(createURLWithPort() + "/users/refresh",
+                new HttpEntity<>(new RefreshTokenRequest(refreshToken)), type);
+    }
 }
@@ -1,11 +1,19 @@
 package com.chiacademy.software.phonecontacts.controller;
 
+import com.chiacademy.software.phonecontacts.exception.InvalidRefreshTokenException;
+import com.chiacademy.software.phonecontacts.exception.ServiceBusyException;
 import com.chiacademy.software.phonecontacts.exception.UserAlreadyExistsException;
-import com.chiacademy.software.phonecontacts.model.Contact;
+import com.chiacademy.software.phonecontacts.model.dto.ContactCursorPage;
 import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
 import com.chiacademy.software.phonecontacts.security.AuthenticationRequest;
 import com.chiacademy.software.phonecontacts.security.AuthenticationResponse;
+import com.chiacademy.software.phonecontacts.security.BulkheadPasswordEncoder;
+import com.chiacademy.software.phonecontacts.security.RefreshTokenRequest;
+import com.chiacademy.software.phonecontacts.service.ContactFileService;
 import com.chiacademy.software.phonecontacts.service.JwtService;
+import com.chiacademy.software.phonecontacts.service.RefreshTokenService;
+import com.chiacademy.software.phonecontacts.service.TokenVersionService;
 import com.chiacademy.software.phonecontacts.service.UserService;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,20 +29,25 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,9 +58,15 @@ public class UserControllerUnitTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private ContactFileService contactFileService;
+
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private TokenVersionService tokenVersionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -66,7 +85,7 @@ public class UserControllerUnitTest {
 
         AuthenticationResponse response = new AuthenticationResponse("eyJhbGciOiJIUzI1NiJ9." +
                 "eyJzdWIiOiJPbGVrc2lpIiwiaWF0IjoxNjg4OTkwNjAwLCJleHAiOjE2ODg5OTIwNDB9" +
-                ".U-gnRTNtyE6pbhi-3P6qFfNd9dYk0sfT6zzJYu0vFrI");
+                ".U-gnRTNtyE6pbhi-3P6qFfNd9dYk0sfT6zzJYu0vFrI", "kQ3vT0bYd9s2Wm7cXr1LzP5nJh8aUe4gFo6iRt2yBwE");
 
         when(userService.register(request)).thenReturn(response);
         mockMvc.perform(post("/api/v1/users/register")
@@ -150,7 +169,7 @@ public class UserControllerUnitTest {
 
         AuthenticationResponse response = new AuthenticationResponse("eyJhbGciOiJIUzI1NiJ9." +
                 "eyJzdWIiOiJPbGVrc2lpIiwiaWF0IjoxNjg4OTkwNjAwLCJleHAiOjE2ODg5OTIwNDB9" +
-                ".U-gnRTNtyE6pbhi-3P6qFfNd9dYk0sfT6zzJYu0vFrI");
+                ".U-gnRTNtyE6pbhi-3P6qFfNd9dYk0sfT6zzJYu0vFrI", "kQ3vT0bYd9s2Wm7cXr1LzP5nJh8aUe4gFo6iRt2yBwE");
 
         when(userService.login(request)).thenReturn(response);
         mockMvc.perform(post("/api/v1/users/auth")
@@ -178,6 +197,71 @@ public class UserControllerUnitTest {
         verify(userService, times(1)).login(request);
     }
 
+    @Test
+    public void login_WhenPasswordHashingIsBusy_Test() throws Exception {
+        AuthenticationRequest request = new AuthenticationRequest("Oleksii", "pass123");
+        String jsonContent = objectMapper.writeValueAsString(request);
+
+        doThrow(new ServiceBusyException(BulkheadPasswordEncoder.QUEUE_FULL)).when(userService).login(request);
+        mockMvc.perform(post("/api/v1/users/auth")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(BulkheadPasswordEncoder.QUEUE_FULL)));
+
+        verify(userService, times(1)).login(request);
+    }
+
+    @Test
+    public void refresh_WhenOK_Test() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest("kQ3vT0bYd9s2Wm7cXr1LzP5nJh8aUe4gFo6iRt2yBwE");
+        String jsonContent = objectMapper.writeValueAsString(request);
+
+        AuthenticationResponse response = new AuthenticationResponse("eyJhbGciOiJIUzI1NiJ9." +
+                "eyJzdWIiOiJPbGVrc2lpIiwiaWF0IjoxNjg4OTkwNjAwLCJleHAiOjE2ODg5OTIwNDB9" +
+                ".U-gnRTNtyE6pbhi-3P6qFfNd9dYk0sfT6zzJYu0vFrI", "Zt7oN1cVq4xE8rHs0LmB3kWd6YfGa2uJp9iTy5eRbXc");
+
+        when(userService.refresh(request)).thenReturn(response);
+        mockMvc.perform(post("/api/v1/users/refresh")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", Matchers.is(response.getToken())))
+                .andExpect(jsonPath("$.refreshToken", Matchers.is(response.getRefreshToken())));
+
+        verify(userService, times(1)).refresh(request);
+    }
+
+    @Test
+    public void refresh_WhenTokenIsReused_Test() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest("kQ3vT0bYd9s2Wm7cXr1LzP5nJh8aUe4gFo6iRt2yBwE");
+        String jsonContent = objectMapper.writeValueAsString(request);
+
+        doThrow(new InvalidRefreshTokenException(RefreshTokenService.REUSED_REFRESH_TOKEN, null))
+                .when(userService).refresh(request);
+        mockMvc.perform(post("/api/v1/users/refresh")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.detail", Matchers.is("Invalid refresh token")))
+                .andExpect(jsonPath("$.problemDetails[0].message", Matchers.is(RefreshTokenService.REUSED_REFRESH_TOKEN)));
+
+        verify(userService, times(1)).refresh(request);
+    }
+
+    @Test
+    public void refresh_WhenTokenIsBlank_Test() throws Exception {
+        String jsonContent = objectMapper.writeValueAsString(new RefreshTokenRequest(" "));
+
+        mockMvc.perform(post("/api/v1/users/refresh")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     public void getAllContactsByUser_WhenOk_Test() throws Exception {
         AuthenticationRequest request = new AuthenticationRequest("Oleksii", "pass123");
@@ -191,14 +275,9 @@ public class UserControllerUnitTest {
                 .emails(Set.of("petro@gmail.com", "petgolenya@gmail.com"))
                 .phones(Set.of("+38094 9331243", "+380504563334"))
                 .build();
-        List<Contact> contactList = Stream.of(contactFirst, contactSecond)
-                .map(contactDto -> Contact.builder()
-                        .name(contactDto.getName())
-                        .emails(contactDto.getEmails())
-                        .phones(contactDto.getPhones()).build())
-                .toList();
+        List<ContactDto> contactList = List.of(contactFirst, contactSecond);
         Pageable pageRequest = PageRequest.of(0, 10, Sort.unsorted());
-        Page<Contact> contacts = new PageImpl<>(contactList, pageRequest, contactList.size());
+        Page<ContactDto> contacts = new PageImpl<>(contactList, pageRequest, contactList.size());
         String expectedJsonResult = """
                 {
                      "content": [
@@ -253,17 +332,32 @@ public class UserControllerUnitTest {
                      "empty": false
                  }
                 """;
+        when(userService.getContactsVersion(request.getLogin(), null)).thenReturn("1-3");
         when(userService.getAllContactsByLogin(request.getLogin(), pageRequest, null))
                 .thenReturn(contacts);
 
         mockMvc.perform(get("/api/v1/users/{login}/contacts", request.getLogin()))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expectedJsonResult));
 
         verify(userService, times(1)).getAllContactsByLogin(request.getLogin(), pageRequest, null);
     }
 
+    @Test
+    public void getAllContactsByUser_WhenNotModified_Test() throws Exception {
+        when(userService.getContactsVersion("Oleksii", null)).thenReturn("1-3");
+
+        mockMvc.perform(get("/api/v1/users/{login}/contacts", "Oleksii")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-2\", \"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getAllContactsByLogin(any(), any(), any());
+    }
+
     @Test
     public void getAllContactsByUser_WhenNotOwnerLogin_Test() throws Exception {
         Pageable pageRequest = PageRequest.of(0, 10, Sort.unsorted());
@@ -282,12 +376,81 @@ public class UserControllerUnitTest {
                 }
                 """;
         doThrow(new SecurityException("Access is not allowed"))
-                .when(userService).getAllContactsByLogin("Misha", pageRequest, null);
+                .when(userService).getContactsVersion("Misha", null);
 
         mockMvc.perform(get("/api/v1/users/{login}/contacts", "Misha"))
                 .andExpect(status().isForbidden())
                 .andExpect(content().json(expectedJson));
 
-        verify(userService, times(1)).getAllContactsByLogin("Misha", pageRequest, null);
+        verify(userService, never()).getAllContactsByLogin("Misha", pageRequest, null);
+    }
+
+    @Test
+    public void getContactsByCursor_WhenOk_Test() throws Exception {
+        ContactDto contact = ContactDto.builder()
+                .name("Leno4ka")
+                .emails(Set.of("Leka@gmail.com"))
+                .phones(Set.of("+380 93 933 3333"))
+                .build();
+        ContactCursorPage page = ContactCursorPage.builder()
+                .content(List.of(contact))
+                .nextCursor("MTpMZW5vNGth")
+                .build();
+        when(userService.getContactsByCursor("Oleksii", null, 1, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/users/{login}/contacts/cursor", "Oleksii").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", Matchers.is("Leno4ka")))
+                .andExpect(jsonPath("$.nextCursor", Matchers.is("MTpMZW5vNGth")));
+
+        verify(userService, times(1)).getContactsByCursor("Oleksii", null, 1, null);
+    }
+
+    @Test
+    public void getContactsByCursor_WhenSizeIsTooBig_Test() throws Exception {
+        String expectedJson = """
+                {
+                    "type": "about:blank",
+                    "title": "Bad Request",
+                    "status": 400,
+                    "detail": "Constraint violation",
+                    "instance": "/api/v1/users/Oleksii/contacts/cursor",
+                    "problemDetails": [
+                        {
+                            "message": "Page size must be between 1 and 100",
+                            "field": "size",
+                            "wrongValue": "1000"
+                        }
+                    ]
+                }
+                """;
+
+        mockMvc.perform(get("/api/v1/users/{login}/contacts/cursor", "Oleksii").param("size", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json(expectedJson));
+
+        verify(userService, times(0)).getContactsByCursor("Oleksii", null, 1000, null);
+    }
+
+    @Test
+    public void exportContacts_WhenCsv_Test() throws Exception {
+        when(userService.getOwnerId("Oleksii", null)).thenReturn(1L);
+
+        mockMvc.perform(get("/api/v1/users/{login}/contacts/export", "Oleksii").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", Matchers.startsWith("text/csv")));
+
+        verify(contactFileService, times(1)).exportContacts(eq(1L), eq(ContactFileFormat.CSV), any());
+    }
+
+    @Test
+    public void exportContacts_WhenNotOwnerLogin_Test() throws Exception {
+        doThrow(new SecurityException("Access is not allowed")).when(userService).getOwnerId("Misha", null);
+
+        mockMvc.perform(get("/api/v1/users/{login}/contacts/export", "Misha"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.detail", Matchers.is("Illegal access")));
+
+        verifyNoInteractions(contactFileService);
     }
 }
@@ -0,0 +1,24 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BCryptCalibrationTest {
+
+    private static final long TARGET = Duration.ofMillis(100).toNanos();
+
+    @Test
+    public void strengthFor_DoublesCostWhileUnderTarget_Test() {
+        assertEquals(11, BCryptCalibration.strengthFor(TARGET, Duration.ofMillis(10).toNanos(), 4, 16));
+        assertEquals(8, BCryptCalibration.strengthFor(TARGET, Duration.ofMillis(60).toNanos(), 4, 16));
+    }
+
+    @Test
+    public void strengthFor_StaysWithinBounds_Test() {
+        assertEquals(10, BCryptCalibration.strengthFor(TARGET, Duration.ofMillis(60).toNanos(), 10, 16));
+        assertEquals(12, BCryptCalibration.strengthFor(TARGET, 1000, 10, 12));
+    }
+}
@@ -0,0 +1,101 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import com.chiacademy.software.phonecontacts.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkheadPasswordEncoderTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry registry;
+    private BulkheadPasswordEncoder encoder;
+
+    @BeforeEach
+    public void init() {
+        registry = new SimpleMeterRegistry();
+        encoder = new BulkheadPasswordEncoder(new BlockingEncoder(), 1, 1, TIMEOUT, registry);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    public void encode_RunsOnHashingPoolAndRecordsTime_Test() {
+        release.countDown();
+
+        assertEquals("hashed:pass123456", encoder.encode("pass123456"));
+        assertTrue(encoder.matches("pass123456", "hashed:pass123456"));
+        assertFalse(encoder.matches("wrong", "hashed:pass123456"));
+
+        assertEquals(1, registry.get("contacts.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("contacts.password.hashing").tag("operation", "matches").timer().count());
+        assertEquals(3, registry.get("contacts.password.queue.wait").timer().count());
+    }
+
+    @Test
+    public void encode_WhenQueueIsFull_RejectsImmediately_Test() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (registry.get("contacts.password.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> encoder.encode("third"));
+
+        assertEquals(BulkheadPasswordEncoder.QUEUE_FULL, e.getMessage());
+        assertEquals(1, registry.get("contacts.password.rejected").counter().count());
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void encode_WhenHashingTakesTooLong_TimesOut_Test() {
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> encoder.encode("slow"));
+
+        assertEquals(BulkheadPasswordEncoder.TIMED_OUT, e.getMessage());
+        assertEquals(1, registry.get("contacts.password.timeouts").counter().count());
+        release.countDown();
+        assertEquals("hashed:next", encoder.encode("next"));
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import com.chiacademy.software.phonecontacts.BaseIT;
+import com.chiacademy.software.phonecontacts.service.JwtService;
+import com.chiacademy.software.phonecontacts.service.TokenVersionService;
+import com.chiacademy.software.phonecontacts.service.UserService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.OK;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "jwtservice.stateless-principal=true")
+public class StatelessPrincipalIntegrationTest extends BaseIT {
+
+    @Autowired
+    private TestRestTemplate template;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @LocalServerPort
+    private int port;
+
+    private final AuthenticationRequest request = new AuthenticationRequest("Stateless", "pass123456");
+
+    private String token;
+
+    private String createURLWithPort() {
+        return "http://localhost:" + port + "/api/v1";
+    }
+
+    @BeforeAll
+    public void init() throws Exception {
+        token = userService.register(request).getToken();
+    }
+
+    private ResponseEntity<Object> getContacts() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("Authorization", "Bearer " + token);
+        return template.exchange(createURLWithPort() + "/users/{login}/contacts", HttpMethod.GET,
+                new HttpEntity<>(headers), Object.class, request.getLogin());
+    }
+
+    @Test
+    @Order(1)
+    public void generateToken_WhenStateless_EmbedsPrincipalClaims_Test() {
+        Claims claims = jwtService.verify(token).getClaims();
+
+        assertNotNull(claims.get(JwtService.USER_ID_CLAIM));
+        assertEquals("USER", claims.get(JwtService.ROLE_CLAIM));
+        assertEquals(0, claims.get(JwtService.TOKEN_VERSION_CLAIM));
+    }
+
+    @Test
+    @Order(2)
+    public void getAllContactsByUser_WhenStatelessToken_Test() {
+        assertEquals(OK, getContacts().getStatusCode());
+    }
+
+    @Test
+    @Order(3)
+    public void getAllContactsByUser_WhenTokenRevoked_Test() {
+        Long userId = jwtService.verify(token).getClaims().get(JwtService.USER_ID_CLAIM, Long.class);
+        tokenVersionService.revokeTokens(userId, request.getLogin());
+
+        assertEquals(FORBIDDEN, getContacts().getStatusCode());
+    }
+}
@@ -0,0 +1,61 @@
+package com.chiacademy.software.phonecontacts.security;
+
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserDetailsCacheTest {
+
+    private final UserPrincipal principal = new UserPrincipal(1L, "Oleksii", "hash", Role.USER, 0);
+
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    public void init() {
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = new UserDetailsCache(userRepository, 100, Duration.ofMinutes(10), Duration.ofHours(1));
+        when(userRepository.findPrincipalByLogin("Oleksii")).thenReturn(Optional.of(principal));
+    }
+
+    @Test
+    public void loadUserByLogin_WhenCached_HitsDatabaseOnce_Test() {
+        assertSame(principal, userDetailsCache.loadUserByLogin("Oleksii"));
+        assertSame(principal, userDetailsCache.loadUserByLogin("Oleksii"));
+
+        verify(userRepository, times(1)).findPrincipalByLogin("Oleksii");
+        assertEquals(1, userDetailsCache.stats().hitCount());
+        assertEquals(1, userDetailsCache.stats().missCount());
+    }
+
+    @Test
+    public void loadUserByLogin_WhenInvalidated_ReloadsUser_Test() {
+        userDetailsCache.loadUserByLogin("Oleksii");
+        userDetailsCache.invalidate("Oleksii");
+        userDetailsCache.loadUserByLogin("Oleksii");
+
+        verify(userRepository, times(2)).findPrincipalByLogin("Oleksii");
+    }
+
+    @Test
+    public void loadUserByLogin_WhenUserDoesNotExist_Test() {
+        when(userRepository.findPrincipalByLogin("alien")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.loadUserByLogin("alien"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.loadUserByLogin("alien"));
+        verify(userRepository, times(2)).findPrincipalByLogin("alien");
+    }
+}
@@ -0,0 +1,107 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.model.dto.ContactDto;
+import com.chiacademy.software.phonecontacts.repository.ContactJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ContactAutocompleteIndexTest {
+
+    private static final Long USER_ID = 1L;
+
+    private ContactJdbcRepository contactJdbcRepository;
+    private ContactAutocompleteIndex index;
+
+    @BeforeEach
+    public void init() {
+        contactJdbcRepository = mock(ContactJdbcRepository.class);
+        index = new ContactAutocompleteIndex(contactJdbcRepository, DataSize.ofMegabytes(1), 100);
+        doAnswer(invocation -> {
+            Consumer<ContactDto> consumer = invocation.getArgument(2);
+            consumer.accept(contact("Olena Kovalenko", "olena@gmail.com", "+380939333333"));
+            consumer.accept(contact("Oleksii Svirsky", "sv@gmail.com", "+380999123456"));
+            consumer.accept(contact("Petro Koval", "petro@ukr.net", "+380671112233"));
+            return null;
+        }).when(contactJdbcRepository).streamByUserId(eq(USER_ID), anyInt(), any());
+    }
+
+    private static ContactDto contact(String name, String email, String phone) {
+        return ContactDto.builder().name(name).emails(Set.of(email)).phones(Set.of(phone)).build();
+    }
+
+    @Test
+    public void suggest_WhenCached_LoadsContactsOnce_Test() {
+        index.suggest(USER_ID, "ol", 10);
+        index.suggest(USER_ID, "ole", 10);
+
+        verify(contactJdbcRepository, times(1)).streamByUserId(eq(USER_ID), anyInt(), any());
+        assertEquals(1, index.stats().hitCount());
+        assertEquals(1, index.stats().missCount());
+    }
+
+    @Test
+    public void suggest_MatchesNameWordsEmailsAndPhones_Test() {
+        assertEquals(List.of("Oleksii Svirsky", "Olena Kovalenko"), index.suggest(USER_ID, "Ole", 10));
+        assertEquals(List.of("Petro Koval", "Olena Kovalenko"), index.suggest(USER_ID, "koval", 10));
+        assertEquals(List.of("Oleksii Svirsky"), index.suggest(USER_ID, "sv@", 10));
+        assertEquals(List.of("Oleksii Svirsky"), index.suggest(USER_ID, "+380 99", 10));
+        assertEquals(List.of("Oleksii Svirsky"), index.suggest(USER_ID, "ole", 1));
+        assertEquals(List.of(), index.suggest(USER_ID, "zz", 10));
+    }
+
+    @Test
+    public void suggest_WhenContactsChanged_ReflectsChanges_Test() {
+        index.suggest(USER_ID, "o", 10);
+
+        index.put(USER_ID, contact("Oksana Moroz", "oksana@gmail.com", "+380501234567"));
+        index.replace(USER_ID, "Petro Koval", contact("Petro Kovalchuk", "petro@ukr.net", "+380671112233"));
+        index.remove(USER_ID, "Oleksii Svirsky");
+
+        assertEquals(List.of("Oksana Moroz", "Olena Kovalenko"), index.suggest(USER_ID, "o", 10));
+        assertEquals(List.of("Petro Kovalchuk", "Olena Kovalenko"), index.suggest(USER_ID, "koval", 10));
+        assertEquals(List.of(), index.suggest(USER_ID, "sv", 10));
+        verify(contactJdbcRepository, times(1)).streamByUserId(eq(USER_ID), anyInt(), any());
+    }
+
+    @Test
+    public void suggest_WhenInvalidated_RebuildsIndex_Test() {
+        index.suggest(USER_ID, "ol", 10);
+        index.invalidate(USER_ID);
+        index.suggest(USER_ID, "ol", 10);
+
+        verify(contactJdbcRepository, times(2)).streamByUserId(eq(USER_ID), anyInt(), any());
+    }
+
+    @Test
+    public void invalidate_WhenTransactionActive_RebuildsAfterCommit_Test() {
+        index.suggest(USER_ID, "ol", 10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.invalidate(USER_ID);
+            index.suggest(USER_ID, "ol", 10);
+            verify(contactJdbcRepository, times(1)).streamByUserId(eq(USER_ID), anyInt(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        index.suggest(USER_ID, "ol", 10);
+
+        verify(contactJdbcRepository, times(2)).streamByUserId(eq(USER_ID), anyInt(), any());
+    }
+}
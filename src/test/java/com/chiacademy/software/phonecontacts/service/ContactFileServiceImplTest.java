@@ -0,0 +1,102 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.model.Role;
+import com.chiacademy.software.phonecontacts.model.dto.ContactFileFormat;
+import com.chiacademy.software.phonecontacts.model.dto.ContactImportReport;
+import com.chiacademy.software.phonecontacts.repository.ContactJdbcRepository;
+import com.chiacademy.software.phonecontacts.repository.ContactRepository;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import com.chiacademy.software.phonecontacts.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContactFileServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String CONTACTS = """
+            {"name":"Olena","emails":["olena@gmail.com"]}
+            {"name":"Ostap","emails":["ostap@gmail.com"]}
+            """;
+
+    private final Principal principal = () -> "Oleksii";
+
+    private ContactJdbcRepository contactJdbcRepository;
+    private ContactRepository contactRepository;
+    private ContactFileServiceImpl contactFileService;
+
+    @BeforeEach
+    public void init() {
+        contactJdbcRepository = mock(ContactJdbcRepository.class);
+        contactRepository = mock(ContactRepository.class);
+        UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+        when(userDetailsCache.loadUserByLogin("Oleksii"))
+                .thenReturn(new UserPrincipal(USER_ID, "Oleksii", "hash", Role.USER, 0));
+        contactFileService = new ContactFileServiceImpl(contactJdbcRepository, contactRepository,
+                mock(UserRepository.class), userDetailsCache, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ContactAutocompleteIndex.class));
+        ReflectionTestUtils.setField(contactFileService, "chunkSize", 500);
+        ReflectionTestUtils.setField(contactFileService, "maxReportedErrors", 1000);
+    }
+
+    @Test
+    public void importContacts_WhenNameTakenConcurrently_RejectsOnlyThatRow_Test() throws Exception {
+        when(contactJdbcRepository.findExistingNames(eq(USER_ID), any()))
+                .thenReturn(new HashSet<>(), new HashSet<>(Set.of("Olena")));
+        doThrow(new DuplicateKeyException("contacts_name_user_id_key"))
+                .doNothing()
+                .when(contactJdbcRepository).insertAll(eq(USER_ID), anyList());
+
+        ContactImportReport report = importContacts();
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getErrors().get(0).getRow());
+        assertEquals("name", report.getErrors().get(0).getProblems().get(0).getField());
+        verify(contactJdbcRepository, times(2)).insertAll(eq(USER_ID), anyList());
+    }
+
+    @Test
+    public void importContacts_WhenChunkKeepsConflicting_RejectsChunk_Test() throws Exception {
+        when(contactJdbcRepository.findExistingNames(eq(USER_ID), any())).thenAnswer(invocation -> new HashSet<>());
+        doThrow(new DuplicateKeyException("contacts_name_user_id_key"))
+                .when(contactJdbcRepository).insertAll(eq(USER_ID), anyList());
+
+        ContactImportReport report = importContacts();
+
+        assertEquals(0, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of(ContactFileServiceImpl.CONCURRENTLY_CHANGED, ContactFileServiceImpl.CONCURRENTLY_CHANGED),
+                report.getErrors().stream().map(error -> error.getProblems().get(0).getMessage()).toList());
+        verify(contactJdbcRepository, times(3)).insertAll(eq(USER_ID), anyList());
+    }
+
+    private ContactImportReport importContacts() throws Exception {
+        return contactFileService.importContacts(new ByteArrayInputStream(CONTACTS.getBytes(StandardCharsets.UTF_8)),
+                ContactFileFormat.NDJSON, principal);
+    }
+}
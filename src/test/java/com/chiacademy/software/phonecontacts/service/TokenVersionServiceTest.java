@@ -0,0 +1,105 @@
+package com.chiacademy.software.phonecontacts.service;
+
+import com.chiacademy.software.phonecontacts.repository.RefreshTokenRepository;
+import com.chiacademy.software.phonecontacts.repository.UserRepository;
+import com.chiacademy.software.phonecontacts.security.UserDetailsCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TokenVersionServiceTest {
+
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+    private RefreshTokenRepository refreshTokenRepository;
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    public void init() {
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = mock(UserDetailsCache.class);
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        tokenVersionService = new TokenVersionService(userRepository, userDetailsCache, refreshTokenRepository,
+                100, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0), Optional.of(1));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void clear() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void isCurrent_WhenCached_HitsDatabaseOnce_Test() {
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        verify(userRepository, times(1)).findTokenVersionById(1L);
+    }
+
+    @Test
+    public void isCurrent_WhenStale_RefreshesVersion_Test() throws InterruptedException {
+        tokenVersionService = new TokenVersionService(userRepository, userDetailsCache, refreshTokenRepository,
+                100, Duration.ofMillis(10), Duration.ofMinutes(10));
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        Thread.sleep(20);
+
+        tokenVersionService.isCurrent(1L, 0);
+
+        verify(userRepository, timeout(1000).times(2)).findTokenVersionById(1L);
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+    }
+
+    @Test
+    public void isCurrent_WhenUserDoesNotExist_Test() {
+        when(userRepository.findTokenVersionById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(tokenVersionService.isCurrent(2L, 0));
+    }
+
+    @Test
+    public void revokeTokens_WhenCommitted_RejectsOlderVersion_Test() {
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        tokenVersionService.revokeTokens(1L, "Oleksii");
+
+        verify(userRepository, times(1)).incrementTokenVersion(1L);
+        verify(refreshTokenRepository, times(1)).revokeByUserId(1L);
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        verify(userDetailsCache, never()).invalidate("Oleksii");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(userDetailsCache, times(1)).invalidate("Oleksii");
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+    }
+
+    @Test
+    public void revokeTokens_WhenRolledBack_KeepsCachedVersion_Test() {
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        tokenVersionService.revokeTokens(1L, "Oleksii");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        verify(userRepository, times(1)).findTokenVersionById(1L);
+        verify(userDetailsCache, never()).invalidate("Oleksii");
+    }
+}
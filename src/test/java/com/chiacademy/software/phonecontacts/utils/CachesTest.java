@@ -0,0 +1,77 @@
+package com.chiacademy.software.phonecontacts.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachesTest {
+
+    private AsyncCache<String, String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void init() {
+        cache = Caffeine.newBuilder().buildAsync();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void get_WhenLoadInFlight_WaitsForIt_Test() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> Caches.get(cache, "key", key -> {
+            started.countDown();
+            await(release);
+            loads.incrementAndGet();
+            return "value";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> Caches.get(cache, "key", key -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+
+        release.countDown();
+
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_WhenLoaderFails_DoesNotCacheFailure_Test() {
+        assertThrows(IllegalStateException.class, () -> Caches.get(cache, "key", key -> {
+            throw new IllegalStateException("down");
+        }));
+
+        assertEquals("value", Caches.get(cache, "key", key -> "value"));
+    }
+
+    @Test
+    public void get_WhenLoaderReturnsNull_DoesNotCacheIt_Test() {
+        assertNull(Caches.get(cache, "key", key -> null));
+
+        assertEquals("value", Caches.get(cache, "key", key -> "value"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
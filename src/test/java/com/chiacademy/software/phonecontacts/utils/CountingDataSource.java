@@ -0,0 +1,116 @@
+package com.chiacademy.software.phonecontacts.utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class CountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+    private static final Set<String> BATCH_METHODS = Set.of("executeBatch", "executeLargeBatch");
+
+    private final SqlStatementCounter counter;
+
+    public CountingDataSource(DataSource targetDataSource, SqlStatementCounter counter) {
+        super(targetDataSource);
+        this.counter = counter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), this::onConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), this::onConnection);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return obtainTargetDataSource().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return obtainTargetDataSource().isWrapperFor(iface);
+    }
+
+    private Object onConnection(Object connection, Method method, Object[] args) throws Throwable {
+        Object result = invoke(connection, method, args);
+        if (PREPARE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+            Class<?> type = method.getName().equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+            return proxy(type, result, (statement, call, callArgs) -> onPreparedStatement(sql, statement, call, callArgs));
+        }
+        if (method.getName().equals("createStatement")) {
+            List<String> batch = new ArrayList<>();
+            return proxy(Statement.class, result, (statement, call, callArgs) -> onStatement(batch, statement, call, callArgs));
+        }
+        return result;
+    }
+
+    private Object onPreparedStatement(String sql, Object statement, Method method, Object[] args) throws Throwable {
+        if (args != null && args.length > 0 && args[0] instanceof String directSql) {
+            return onStatement(new ArrayList<>(), statement, method, new Object[]{directSql});
+        }
+        Object result = invoke(statement, method, args);
+        if (EXECUTE_METHODS.contains(method.getName()) || BATCH_METHODS.contains(method.getName())) {
+            counter.record(sql);
+        }
+        return result;
+    }
+
+    private Object onStatement(List<String> batch, Object statement, Method method, Object[] args) throws Throwable {
+        Object result = invoke(statement, method, args);
+        if (EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+            counter.record(sql);
+        } else if (method.getName().equals("addBatch") && args != null && args[0] instanceof String sql) {
+            batch.add(sql);
+        } else if (BATCH_METHODS.contains(method.getName())) {
+            batch.forEach(counter::record);
+            batch.clear();
+        } else if (method.getName().equals("clearBatch")) {
+            batch.clear();
+        }
+        return result;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return invoke(target, method, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,79 @@
+package com.chiacademy.software.phonecontacts.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlStatementCounter {
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private final Map<Kind, AtomicInteger> counts = new EnumMap<>(Kind.class);
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    public SqlStatementCounter() {
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, new AtomicInteger());
+        }
+    }
+
+    public void reset() {
+        counts.values().forEach(count -> count.set(0));
+        statements.clear();
+    }
+
+    public void record(String sql) {
+        counts.get(kindOf(sql)).incrementAndGet();
+        statements.add(sql);
+    }
+
+    public int count(Kind kind) {
+        return counts.get(kind).get();
+    }
+
+    public int total() {
+        return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    public void assertCounts(int selects, int inserts, int updates, int deletes) {
+        String actual = String.format("selects=%d, inserts=%d, updates=%d, deletes=%d, other=%d%n%s",
+                count(Kind.SELECT), count(Kind.INSERT), count(Kind.UPDATE), count(Kind.DELETE), count(Kind.OTHER),
+                String.join(System.lineSeparator(), statements()));
+        assertEquals(List.of(selects, inserts, updates, deletes, 0),
+                List.of(count(Kind.SELECT), count(Kind.INSERT), count(Kind.UPDATE), count(Kind.DELETE),
+                        count(Kind.OTHER)), actual);
+    }
+
+    static Kind kindOf(String sql) {
+        String statement = sql.stripLeading();
+        while (statement.startsWith("/*")) {
+            int end = statement.indexOf("*/");
+            statement = end < 0 ? "" : statement.substring(end + 2).stripLeading();
+        }
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return switch (statement.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> Kind.SELECT;
+            case "insert" -> Kind.INSERT;
+            case "update" -> Kind.UPDATE;
+            case "delete" -> Kind.DELETE;
+            default -> Kind.OTHER;
+        };
+    }
+}